@@ -0,0 +1,123 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.Driver;
+import com.frostyfox.ethosbackend.model.Location;
+import com.frostyfox.ethosbackend.model.PackagePriority;
+import com.frostyfox.ethosbackend.repository.DriverRepository;
+import com.frostyfox.ethosbackend.repository.LocationRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Bulk assignment of a backlog (initialize, force-reinitialize) and placement of one new
+// package (every submission) for each strategy, over a fleet of 50 positioned drivers
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class AssignmentBenchmark {
+
+    private static final int DRIVERS = 50;
+    private static final int LOCATIONS = 200;
+    private static final String[] ROUTES = {
+        "North Route - Medical & Emergency", "Central Route - Food & Essential", "South Route - Standard & General"
+    };
+    private static final String[] DELIVERY_TYPES = {"MEDICAL_EXPRESS", "FOOD_EXPRESS", "ESSENTIAL", "STANDARD"};
+
+    @Param({"1000", "100000", "1000000"})
+    private int packages;
+
+    @Param({"round-robin", "capacity-aware", "nearest"})
+    private String strategyName;
+
+    private AssignmentStrategy strategy;
+    private DriverLoadView drivers;
+    private List<PackagePriority> backlog;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+
+        LocationRepository locationRepository = mock(LocationRepository.class);
+        when(locationRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        Gazetteer gazetteer = new Gazetteer(locationRepository);
+        for (int i = 0; i < LOCATIONS; i++) {
+            Location location = new Location();
+            location.setName("Location " + i);
+            location.setLatitude(6.9 + random.nextDouble());
+            location.setLongitude(79.8 + random.nextDouble());
+            gazetteer.save(location);
+        }
+
+        DriverSpatialIndex spatialIndex = new DriverSpatialIndex(mock(DriverRepository.class), 0.05, 64);
+        List<Driver> fleet = new ArrayList<>(DRIVERS);
+        for (long id = 1; id <= DRIVERS; id++) {
+            Driver driver = new Driver();
+            driver.setId(id);
+            driver.setDriverName("Driver " + id);
+            driver.setRoute(ROUTES[(int) (id % ROUTES.length)]);
+            driver.setTotalCapacity(packages / DRIVERS + 1);
+            driver.setAssignedPackages(0);
+            driver.setCurrentlyHeld(0);
+            driver.setLatitude(6.9 + random.nextDouble());
+            driver.setLongitude(79.8 + random.nextDouble());
+            fleet.add(driver);
+            spatialIndex.update(driver);
+        }
+        drivers = DriverLoadView.of(fleet);
+
+        // One pickup in ten is not in the gazetteer and takes the fallback path
+        backlog = new ArrayList<>(packages);
+        for (long id = 1; id <= packages; id++) {
+            PackagePriority pkg = new PackagePriority();
+            pkg.setId(id);
+            pkg.setPackageId("PKG-" + id);
+            pkg.setDeliveryType(DELIVERY_TYPES[random.nextInt(DELIVERY_TYPES.length)]);
+            pkg.setPickupLocation(random.nextInt(10) == 0 ? "Unknown " + id : "Location " + random.nextInt(LOCATIONS));
+            pkg.setEthicalScore(Math.round(random.nextDouble() * 100) / 10.0);
+            backlog.add(pkg);
+        }
+
+        CapacityAwareAssignmentStrategy capacityAware = new CapacityAwareAssignmentStrategy();
+        strategy = switch (strategyName) {
+            case "round-robin" -> new RoundRobinAssignmentStrategy();
+            case "capacity-aware" -> capacityAware;
+            default -> new NearestDriverAssignmentStrategy(gazetteer, spatialIndex, capacityAware);
+        };
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 5)
+    public int[] assignAll() {
+        return strategy.assignAll(drivers, backlog);
+    }
+
+    @Benchmark
+    public int assignOne() {
+        PackagePriority pkg = backlog.get(next);
+        next = next + 1 < backlog.size() ? next + 1 : 0;
+        return strategy.assignOne(drivers, pkg);
+    }
+}
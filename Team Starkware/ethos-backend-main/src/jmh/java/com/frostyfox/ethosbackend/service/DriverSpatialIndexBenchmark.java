@@ -0,0 +1,75 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.Driver;
+import com.frostyfox.ethosbackend.repository.DriverRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+// One nearest-driver lookup, as made for every submission under the nearest strategy.
+// "full" has every driver at capacity, the case where no lookup can stop early; "sparse"
+// parks the fleet about 50 grid cells from the pickups, so most cells walked are empty.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class DriverSpatialIndexBenchmark {
+
+    private static final int PICKUPS = 1024;
+
+    @Param({"50", "1000", "10000"})
+    private int drivers;
+
+    @Param({"open", "full", "sparse"})
+    private String fleet;
+
+    private DriverSpatialIndex index;
+    private double[] latitudes;
+    private double[] longitudes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new DriverSpatialIndex(mock(DriverRepository.class), 0.05, 64);
+        // Pickups over roughly 100 x 100 km, drivers there too unless the area is sparse
+        double offset = fleet.equals("sparse") ? 2.5 : 0.0;
+        for (long id = 1; id <= drivers; id++) {
+            Driver driver = new Driver();
+            driver.setId(id);
+            driver.setLatitude(6.9 + offset + random.nextDouble());
+            driver.setLongitude(79.8 + offset + random.nextDouble());
+            index.update(driver);
+            index.refreshCapacity(id, () -> fleet.equals("full"));
+        }
+
+        latitudes = new double[PICKUPS];
+        longitudes = new double[PICKUPS];
+        for (int i = 0; i < PICKUPS; i++) {
+            latitudes[i] = 6.9 + random.nextDouble();
+            longitudes[i] = 79.8 + random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public Long nearest() {
+        int i = next;
+        next = (next + 1) & (PICKUPS - 1);
+        return index.nearest(latitudes[i], longitudes[i], id -> true);
+    }
+}
@@ -0,0 +1,111 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.AnalyzerResponse;
+import com.frostyfox.ethosbackend.model.PackagePriority;
+import com.frostyfox.ethosbackend.repository.EthosRepository;
+import com.frostyfox.ethosbackend.repository.PackagePriorityRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+// Per-submission parsing and formatting in EthosService, fed a typical analyzer response
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EthosServiceBenchmark {
+
+    private static final String EXPLANATION = "DECISION EXPLANATION:\n" +
+        "Package contained keywords associated with the MEDICAL_EXPRESS domain.\n" +
+        "Total Ethical Score: 8.7";
+
+    private EthosService ethosService;
+    private AnalyzerResponse response;
+    private PackagePriority pkg;
+    private double score;
+
+    @Setup
+    public void setUp() {
+        // The benchmarked methods only touch their arguments and the metrics; every other
+        // collaborator is a stub that throws when called, so no measured path can reach one
+        IngestionMetrics metrics = new IngestionMetrics(new SimpleMeterRegistry(), mock(DriverLoadRegistry.class));
+        ethosService = new EthosService(
+            unused(EthosRepository.class),
+            unused(PackagePriorityRepository.class),
+            unused(DistributionService.class),
+            unused(PriorityIndex.class),
+            unused(AnalyzerClient.class),
+            unused(AnalysisCache.class),
+            unused(SimilarityIndex.class),
+            unused(PackageStatsAggregator.class),
+            unused(PackagePager.class),
+            unused(PackageIdGenerator.class),
+            metrics,
+            unused(ExplanationBackfillJob.class),
+            unused(DashboardEvents.class),
+            unused(EntityCache.class));
+
+        response = new AnalyzerResponse(1, true, null, EXPLANATION,
+            new AnalyzerResponse.Score(3.48, 3.045, 2.175, 8.7, Map.of()), Map.of());
+
+        pkg = new PackagePriority();
+        pkg.setPackageId("PKG-168423512711413760");
+        pkg.setDeliveryType("MEDICAL_EXPRESS");
+        pkg.setPickupLocation("City Medical Center");
+        pkg.setDestination("General Hospital, Emergency Ward");
+        pkg.setDeliveryTime("2026-02-05T08:00:00");
+        pkg.setEthicalScore(8.7);
+        score = 8.7;
+    }
+
+    private static <T> T unused(Class<T> type) {
+        return mock(type, invocation -> {
+            throw new UnsupportedOperationException(type.getSimpleName() + " is not part of the benchmark");
+        });
+    }
+
+    @Benchmark
+    public Integer calculatePriority() {
+        return EthosService.calculatePriority(score);
+    }
+
+    @Benchmark
+    public Double extractEthicalScore() {
+        return ethosService.extractEthicalScore(response);
+    }
+
+    @Benchmark
+    public String determineDeliveryType() {
+        return ethosService.determineDeliveryType(response);
+    }
+
+    @Benchmark
+    public String responseToJson() {
+        return response.toJson();
+    }
+
+    @Benchmark
+    public String extractDomainFromExplanation() {
+        return ethosService.extractDomainFromExplanation(EXPLANATION);
+    }
+
+    @Benchmark
+    public String generateSimpleExplanation() {
+        return ethosService.generateSimpleExplanation(pkg);
+    }
+}
@@ -0,0 +1,82 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.repository.PackagePriorityRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Re-ranking: a full rebuild of the priority index (startup and force-reinitialize) and
+// ranking one new package into an index of the given size (every submission)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class PriorityIndexBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int packages;
+
+    private List<PackagePriorityRepository.ScoreView> rows;
+    private PriorityIndex index;
+    private Random random;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new Random(42);
+        rows = new ArrayList<>(packages);
+        for (long id = 1; id <= packages; id++) {
+            rows.add(new Row(id, Math.round(random.nextDouble() * 100) / 10.0));
+        }
+        index = new PriorityIndex(null);
+        index.rebuild(rows);
+        nextId = packages + 1;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 5)
+    public int rebuild() {
+        PriorityIndex rebuilt = new PriorityIndex(null);
+        rebuilt.rebuild(rows);
+        return rebuilt.size();
+    }
+
+    // Adds then removes, so the index stays at the parameterized size
+    @Benchmark
+    public int rankNewPackage() {
+        long id = nextId++;
+        int priority = index.add(id, Math.round(random.nextDouble() * 100) / 10.0);
+        index.remove(id);
+        return priority;
+    }
+
+    private record Row(Long id, Double ethicalScore) implements PackagePriorityRepository.ScoreView {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Double getEthicalScore() {
+            return ethicalScore;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.frostyfox.ethosbackend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.frostyfox.ethosbackend.EthosBackendApplication;
+import com.frostyfox.ethosbackend.support.StubAnalyzerServer;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Boots the application against an embedded PostgreSQL and the stub analyzer, then
+// drives a closed-loop mix of package submissions and dashboard polls. Latency
+// percentiles and throughput per endpoint, measured after the warm-up, are printed and
+// written as JSON to load.report. Run with: mvn -Pload-test test [-Dload.<setting>=...]
+class EthosLoadTest {
+
+    private static final String[] ITEMS = {
+        "insulin pens", "bandages", "rice sacks", "baby formula", "water purification tablets",
+        "school books", "blankets", "antibiotics", "canned food", "laptop chargers", "tents",
+        "oral rehydration salts", "medical kit", "dry rations", "hygiene kits", "spare parts"
+    };
+    private static final String[] RECIPIENTS = {
+        "clinic", "shelter", "school", "field hospital", "orphanage", "community kitchen", "warehouse"
+    };
+
+    @Test
+    void submissionAndDashboardMix() throws Exception {
+        Settings settings = Settings.fromSystemProperties();
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.start();
+             StubAnalyzerServer analyzer = new StubAnalyzerServer(settings.analyzerLatencyMs, settings.analyzerJitterMs,
+                 settings.analyzerWorkers, true, settings.analyzerErrorRate, settings.scoreDistribution)) {
+
+            ConfigurableApplicationContext app = SpringApplication.run(EthosBackendApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.com.frostyfox.ethosbackend=WARN",
+                "--ethos.analyzer.base-url=" + analyzer.baseUrl());
+            try {
+                String baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+                Map<String, Object> report = run(settings, baseUrl);
+
+                Map<String, Object> analyzerStats = new LinkedHashMap<>();
+                analyzerStats.put("singleRequests", analyzer.singleRequests());
+                analyzerStats.put("batchRequests", analyzer.batchRequests());
+                analyzerStats.put("failedRequests", analyzer.failedRequests());
+                report.put("analyzer", analyzerStats);
+                report.put("packagesStored", app.getBean(JdbcTemplate.class)
+                    .queryForObject("SELECT COUNT(*) FROM package_priorities", Long.class));
+
+                writeReport(settings, report);
+                check(settings, report);
+            } finally {
+                app.close();
+            }
+        }
+    }
+
+    private Map<String, Object> run(Settings settings, String baseUrl) throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        String startedAt = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmupSeconds * 1_000_000_000L;
+        long end = measureFrom + settings.durationSeconds * 1_000_000_000L;
+        AtomicLong sequence = new AtomicLong();
+
+        List<Future<Map<String, LatencyRecorder>>> clients = new ArrayList<>();
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            String submitUri = baseUrl + (settings.async ? "/api/ethos?async=true" : "/api/ethos");
+            String submitName = settings.async ? "POST /api/ethos?async=true" : "POST /api/ethos";
+            for (int i = 0; i < settings.submitters; i++) {
+                clients.add(threads.submit(() -> drive(http, measureFrom, end, 0, () -> {
+                    String body = "{\"pickupLocation\":\"Central Depot\",\"destination\":\"" +
+                        RECIPIENTS[(int) (sequence.get() % RECIPIENTS.length)] + "\",\"deliveryTime\":\"" +
+                        LocalDateTime.now().plusHours(4).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) +
+                        "\",\"packageDescription\":\"" + description(sequence.incrementAndGet(), settings) + "\"}";
+                    return new Call(submitName, HttpRequest.newBuilder(URI.create(submitUri))
+                        .header("Content-Type", "application/json")
+                        .timeout(Duration.ofSeconds(30))
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build());
+                })));
+            }
+            for (int i = 0; i < settings.pollers; i++) {
+                int first = i;
+                clients.add(threads.submit(() -> {
+                    int[] next = {first};
+                    return drive(http, measureFrom, end, settings.pollIntervalMs, () -> {
+                        String endpoint = settings.dashboardEndpoints.get(next[0]++ % settings.dashboardEndpoints.size());
+                        return new Call("GET " + endpoint, HttpRequest.newBuilder(URI.create(baseUrl + endpoint))
+                            .timeout(Duration.ofSeconds(30))
+                            .GET()
+                            .build());
+                    });
+                }));
+            }
+
+            Map<String, LatencyRecorder> merged = new TreeMap<>();
+            for (Future<Map<String, LatencyRecorder>> client : clients) {
+                client.get().forEach((endpoint, recorder) ->
+                    merged.computeIfAbsent(endpoint, key -> new LatencyRecorder()).merge(recorder));
+            }
+
+            double measuredSeconds = settings.durationSeconds;
+            Map<String, Object> endpoints = new LinkedHashMap<>();
+            merged.forEach((endpoint, recorder) -> endpoints.put(endpoint, recorder.summary(measuredSeconds)));
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("startedAt", startedAt);
+            report.put("settings", settings.toMap());
+            report.put("measuredSeconds", measuredSeconds);
+            report.put("endpoints", endpoints);
+            return report;
+        }
+    }
+
+    // Issues calls back to back (or pacedMs apart) until the end; only calls started after
+    // the warm-up are recorded
+    private Map<String, LatencyRecorder> drive(HttpClient http, long measureFrom, long end, long pacedMs,
+                                               CallSource calls) throws InterruptedException {
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        while (System.nanoTime() < end) {
+            Call call = calls.next();
+            long sent = System.nanoTime();
+            boolean ok;
+            try {
+                HttpResponse<Void> response = http.send(call.request(), HttpResponse.BodyHandlers.discarding());
+                ok = response.statusCode() < 400;
+            } catch (Exception e) {
+                ok = false;
+            }
+            long received = System.nanoTime();
+            if (sent >= measureFrom && received <= end) {
+                recorders.computeIfAbsent(call.endpoint(), key -> new LatencyRecorder())
+                    .record((received - sent) / 1000, ok);
+            }
+            if (pacedMs > 0) {
+                Thread.sleep(pacedMs);
+            }
+        }
+        return recorders;
+    }
+
+    // Mostly distinct descriptions; every load.repeat-every-th one repeats an earlier
+    // description, so the analysis cache sees a realistic share of hits
+    private static String description(long n, Settings settings) {
+        long seed = settings.repeatEvery > 0 && n % settings.repeatEvery == 0 ?
+            ThreadLocalRandom.current().nextLong(1, n) : n;
+        String item = ITEMS[(int) (seed % ITEMS.length)];
+        String other = ITEMS[(int) ((seed / ITEMS.length) % ITEMS.length)];
+        String recipient = RECIPIENTS[(int) ((seed / 7) % RECIPIENTS.length)];
+        return (seed % 50 + 1) + " " + item + " and " + other + " for " + recipient + " batch " + seed;
+    }
+
+    private static void writeReport(Settings settings, Map<String, Object> report) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        File file = new File(settings.reportPath);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        objectMapper.writeValue(file, report);
+
+        System.out.println();
+        System.out.printf("%-40s %9s %7s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        ((Map<?, ?>) report.get("endpoints")).forEach((endpoint, value) -> {
+            Map<?, ?> stats = (Map<?, ?>) value;
+            System.out.printf(Locale.ROOT, "%-40s %9s %7s %9s %9s %9s %9s%n", endpoint, stats.get("requests"),
+                stats.get("errors"), stats.get("throughputPerSec"), stats.get("p50Ms"), stats.get("p99Ms"), stats.get("maxMs"));
+        });
+        System.out.println("analyzer: " + report.get("analyzer") + ", packages stored: " + report.get("packagesStored"));
+        System.out.println("report written to " + file.getAbsolutePath());
+    }
+
+    // Only a run that exercised nothing fails, unless a latency budget is given
+    private static void check(Settings settings, Map<String, Object> report) {
+        Map<?, ?> endpoints = (Map<?, ?>) report.get("endpoints");
+        assertTrue(endpoints.keySet().stream().anyMatch(endpoint -> endpoint.toString().startsWith("POST")),
+            "no submission completed inside the measured window");
+        if (settings.maxP99Ms > 0) {
+            endpoints.forEach((endpoint, value) -> {
+                Object p99 = ((Map<?, ?>) value).get("p99Ms");
+                assertTrue(p99 == null || ((Number) p99).doubleValue() <= settings.maxP99Ms,
+                    endpoint + " p99 " + p99 + " ms exceeds load.max-p99-ms " + settings.maxP99Ms);
+            });
+        }
+    }
+
+    private interface CallSource {
+        Call next();
+    }
+
+    private record Call(String endpoint, HttpRequest request) {
+    }
+
+    private record Settings(int warmupSeconds, int durationSeconds, int submitters, boolean async, int pollers,
+                            long pollIntervalMs, List<String> dashboardEndpoints, int repeatEvery,
+                            long analyzerLatencyMs, long analyzerJitterMs, int analyzerWorkers,
+                            double analyzerErrorRate, StubAnalyzerServer.ScoreDistribution scoreDistribution,
+                            double maxP99Ms, String reportPath) {
+
+        static Settings fromSystemProperties() {
+            return new Settings(
+                Integer.getInteger("load.warmup-seconds", 5),
+                Integer.getInteger("load.duration-seconds", 30),
+                Integer.getInteger("load.submitters", 16),
+                Boolean.getBoolean("load.async"),
+                Integer.getInteger("load.pollers", 8),
+                Long.getLong("load.poll-interval-ms", 50),
+                List.of(System.getProperty("load.dashboard-endpoints",
+                    "/api/packages/page?limit=50,/api/packages/stats,/api/distribution,/api/distribution/stats")
+                    .split(",")),
+                Integer.getInteger("load.repeat-every", 5),
+                Long.getLong("load.analyzer.latency-ms", 20),
+                Long.getLong("load.analyzer.jitter-ms", 10),
+                Integer.getInteger("load.analyzer.workers", 64),
+                Double.parseDouble(System.getProperty("load.analyzer.error-rate", "0")),
+                StubAnalyzerServer.ScoreDistribution.valueOf(System.getProperty("load.analyzer.scores", "uniform")
+                    .toUpperCase(Locale.ROOT).replace('-', '_')),
+                Double.parseDouble(System.getProperty("load.max-p99-ms", "0")),
+                System.getProperty("load.report", "target/load-test-report.json"));
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("warmupSeconds", warmupSeconds);
+            map.put("durationSeconds", durationSeconds);
+            map.put("submitters", submitters);
+            map.put("async", async);
+            map.put("pollers", pollers);
+            map.put("pollIntervalMs", pollIntervalMs);
+            map.put("dashboardEndpoints", dashboardEndpoints);
+            map.put("repeatEvery", repeatEvery);
+            map.put("analyzerLatencyMs", analyzerLatencyMs);
+            map.put("analyzerJitterMs", analyzerJitterMs);
+            map.put("analyzerWorkers", analyzerWorkers);
+            map.put("analyzerErrorRate", analyzerErrorRate);
+            map.put("scoreDistribution", scoreDistribution.name().toLowerCase(Locale.ROOT).replace('_', '-'));
+            return map;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.frostyfox.ethosbackend.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Latencies and outcomes of one endpoint as seen by one client thread. Recorders of the
+// same endpoint are merged after the run, so recording never contends.
+class LatencyRecorder {
+
+    private long[] latenciesMicros = new long[1024];
+    private int count;
+    private int errors;
+
+    void record(long latencyMicros, boolean ok) {
+        if (count == latenciesMicros.length) {
+            latenciesMicros = Arrays.copyOf(latenciesMicros, count * 2);
+        }
+        latenciesMicros[count++] = latencyMicros;
+        if (!ok) {
+            errors++;
+        }
+    }
+
+    void merge(LatencyRecorder other) {
+        if (count + other.count > latenciesMicros.length) {
+            latenciesMicros = Arrays.copyOf(latenciesMicros, count + other.count);
+        }
+        System.arraycopy(other.latenciesMicros, 0, latenciesMicros, count, other.count);
+        count += other.count;
+        errors += other.errors;
+    }
+
+    int count() {
+        return count;
+    }
+
+    // Nearest-rank percentiles over the measured window, in milliseconds
+    Map<String, Object> summary(double measuredSeconds) {
+        long[] sorted = Arrays.copyOf(latenciesMicros, count);
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("errors", errors);
+        summary.put("throughputPerSec", round(count / measuredSeconds));
+        summary.put("meanMs", count > 0 ? round(Arrays.stream(sorted).average().orElse(0) / 1000.0) : null);
+        summary.put("p50Ms", percentile(sorted, 50));
+        summary.put("p90Ms", percentile(sorted, 90));
+        summary.put("p99Ms", percentile(sorted, 99));
+        summary.put("maxMs", count > 0 ? round(sorted[count - 1] / 1000.0) : null);
+        return summary;
+    }
+
+    private static Double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return null;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return round(sorted[Math.max(0, rank - 1)] / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,17 @@
+package com.frostyfox.ethosbackend.config;
+
+import com.frostyfox.ethosbackend.service.PythonResponseColumnMigration;
+import org.springframework.boot.jpa.autoconfigure.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Column migrations that must finish before JPA starts, and so before any repository,
+// startup listener or request touches the table
+@Configuration
+public class SchemaMigrationConfig {
+
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryDependsOnSchemaMigrations() {
+        return new EntityManagerFactoryDependsOnPostProcessor(PythonResponseColumnMigration.class);
+    }
+}
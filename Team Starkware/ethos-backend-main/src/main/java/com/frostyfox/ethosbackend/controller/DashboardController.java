@@ -0,0 +1,33 @@
+package com.frostyfox.ethosbackend.controller;
+
+import com.frostyfox.ethosbackend.service.DashboardEvents;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class DashboardController {
+    
+    private final DashboardEvents dashboardEvents;
+    
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents() {
+        SseEmitter emitter = dashboardEvents.subscribe();
+        return emitter != null ? 
+            ResponseEntity.ok(emitter) : 
+            ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+    
+    @GetMapping("/events/stats")
+    public ResponseEntity<Map<String, Object>> getEventStats() {
+        return ResponseEntity.ok(dashboardEvents.getStats());
+    }
+}
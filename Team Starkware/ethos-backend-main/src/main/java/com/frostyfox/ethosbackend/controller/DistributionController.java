@@ -1,9 +1,13 @@
 package com.frostyfox.ethosbackend.controller;
 
+import com.frostyfox.ethosbackend.model.DriverRegistration;
 import com.frostyfox.ethosbackend.service.DistributionService;
+import com.frostyfox.ethosbackend.service.PackageExport;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -15,6 +19,7 @@ import java.util.Map;
 public class DistributionController {
     
     private final DistributionService distributionService;
+    private final PackageExport packageExport;
     
     @GetMapping
     public ResponseEntity<List<Map<String, Object>>> getDistribution() {
@@ -34,6 +39,69 @@ public class DistributionController {
         return ResponseEntity.ok(packages);
     }
     
+    @GetMapping("/packages/page")
+    public ResponseEntity<Map<String, Object>> getPackagesByStatusPage(
+            @RequestParam String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        Map<String, Object> page = distributionService.getPackagesByStatusPage(status, cursor, limit, fields);
+        return page != null ? 
+            ResponseEntity.ok(page) : 
+            ResponseEntity.badRequest().build();
+    }
+    
+    @PostMapping("/drivers")
+    public ResponseEntity<Map<String, Object>> registerDriver(@RequestBody DriverRegistration registration) {
+        Map<String, Object> result = distributionService.registerDriver(registration);
+        return Boolean.TRUE.equals(result.get("error")) ? 
+            ResponseEntity.badRequest().body(result) : 
+            ResponseEntity.ok(result);
+    }
+    
+    @PutMapping("/drivers/{id}/position")
+    public ResponseEntity<Map<String, Object>> updateDriverPosition(
+            @PathVariable Long id,
+            @RequestBody DriverRegistration update) {
+        Map<String, Object> result = distributionService.updateDriverPosition(id, update);
+        if (result == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return Boolean.TRUE.equals(result.get("error")) ? 
+            ResponseEntity.badRequest().body(result) : 
+            ResponseEntity.ok(result);
+    }
+    
+    @GetMapping("/drivers/{id}/packages")
+    public ResponseEntity<List<Map<String, Object>>> getDriverPackages(@PathVariable Long id) {
+        List<Map<String, Object>> packages = distributionService.getDriverPackages(id);
+        return packages != null ? 
+            ResponseEntity.ok(packages) : 
+            ResponseEntity.notFound().build();
+    }
+    
+    @GetMapping("/assignments/export")
+    public ResponseEntity<StreamingResponseBody> exportAssignments(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) Long driverId,
+            @RequestParam(required = false) Integer minPriority,
+            @RequestParam(required = false) Integer maxPriority,
+            @RequestParam(required = false) String deliveryType,
+            @RequestParam(required = false) String createdFrom,
+            @RequestParam(required = false) String createdTo) {
+        PackageExport.Filter filter = new PackageExport.Filter(minPriority, maxPriority, deliveryType,
+            createdFrom, createdTo, driverId);
+        PackageExport.Format exportFormat = PackageExport.Format.parse(format);
+        if (exportFormat == null || !packageExport.isValid(filter)) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = packageExport.exportAssignments(filter, exportFormat, gzip);
+        return body != null ?
+            ResponseEntity.ok().headers(PackageExport.headers("assignments", exportFormat, gzip)).body(body) :
+            ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+    
     @PostMapping("/initialize")
     public ResponseEntity<Map<String, String>> initializeDistribution() {
         String result = distributionService.initializeDriversAndAssignPackages();
@@ -43,6 +111,20 @@ public class DistributionController {
     @PostMapping("/force-reinitialize")
     public ResponseEntity<Map<String, Object>> forceReinitializeDistribution() {
         Map<String, Object> result = distributionService.forceReinitializeDriversAndAssignPackages();
-        return ResponseEntity.ok(result);
+        if (result == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", "A reassignment job is already running"));
+        }
+        return Boolean.TRUE.equals(result.get("error")) ? 
+            ResponseEntity.internalServerError().body(result) : 
+            ResponseEntity.accepted().body(result);
+    }
+    
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<Map<String, Object>> getReassignmentJob(@PathVariable String id) {
+        Map<String, Object> job = distributionService.getReassignmentJob(id);
+        return job != null ? 
+            ResponseEntity.ok(job) : 
+            ResponseEntity.notFound().build();
     }
 }
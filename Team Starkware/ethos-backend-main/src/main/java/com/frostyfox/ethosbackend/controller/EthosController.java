@@ -1,25 +1,75 @@
 package com.frostyfox.ethosbackend.controller;
 
+import com.frostyfox.ethosbackend.model.AnalyzerResponse;
 import com.frostyfox.ethosbackend.model.EthosModel;
+import com.frostyfox.ethosbackend.service.BatchIngestion;
 import com.frostyfox.ethosbackend.service.EthosService;
+import com.frostyfox.ethosbackend.service.IngestionPipeline;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.InputStream;
+import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
 public class EthosController {
 
     private final EthosService ethosService;
+    private final IngestionPipeline ingestionPipeline;
+    private final BatchIngestion batchIngestion;
 
     @PostMapping("/api/ethos")
-    public ResponseEntity<Object> triggerEthos(@RequestBody EthosModel ethosModel) {
-        Object pythonResponse = ethosService.forwardToPython(ethosModel);
+    public ResponseEntity<AnalyzerResponse> triggerEthos(@RequestBody EthosModel ethosModel) {
+        AnalyzerResponse pythonResponse = ethosService.forwardToPython(ethosModel);
         return ResponseEntity.ok(pythonResponse);
     }
 
+    @PostMapping(value = "/api/ethos", params = "async=true")
+    public ResponseEntity<Map<String, Object>> submitEthos(@RequestBody EthosModel ethosModel) {
+        Map<String, Object> status = ingestionPipeline.submit(ethosModel);
+        return status != null ?
+            ResponseEntity.accepted().body(status) :
+            ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("message", "Ingestion queue is full, retry later"));
+    }
+
+    // NDJSON or a JSON array of submissions in, one NDJSON result line per record out
+    @PostMapping(value = "/api/ethos/batch",
+                 consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ResponseBodyEmitter> submitBatch(InputStream body) {
+        ResponseBodyEmitter results = batchIngestion.start(body);
+        return results != null ?
+            ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(results) :
+            ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
+    @GetMapping("/api/ethos/status/{trackingId}")
+    public ResponseEntity<Map<String, Object>> getIngestionStatus(@PathVariable String trackingId) {
+        Map<String, Object> status = ingestionPipeline.getStatus(trackingId);
+        return status != null ?
+            ResponseEntity.ok(status) :
+            ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/api/ethos/cache/stats")
+    public ResponseEntity<Map<String, Object>> getAnalysisCacheStats() {
+        return ResponseEntity.ok(ethosService.getAnalysisCacheStats());
+    }
+
+    @PostMapping("/api/ethos/cache/flush")
+    public ResponseEntity<Map<String, Object>> flushAnalysisCache() {
+        return ResponseEntity.ok(ethosService.flushAnalysisCache());
+    }
+
 //    @PostMapping("/api/ethos")
 //    public void sendEthos(
 //            @RequestBody EthosModel ethosModel
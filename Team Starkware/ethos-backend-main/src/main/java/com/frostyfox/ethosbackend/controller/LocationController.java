@@ -0,0 +1,34 @@
+package com.frostyfox.ethosbackend.controller;
+
+import com.frostyfox.ethosbackend.model.Location;
+import com.frostyfox.ethosbackend.service.Gazetteer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/locations")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class LocationController {
+    
+    private final Gazetteer gazetteer;
+    
+    @GetMapping
+    public ResponseEntity<List<Location>> getLocations() {
+        return ResponseEntity.ok(gazetteer.getAll());
+    }
+    
+    @PostMapping
+    public ResponseEntity<Object> saveLocation(@RequestBody Location location) {
+        if (location.getName() == null || location.getName().isBlank() ||
+            location.getLatitude() == null || location.getLongitude() == null) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("message", "name, latitude and longitude are required"));
+        }
+        return ResponseEntity.ok(gazetteer.save(location));
+    }
+}
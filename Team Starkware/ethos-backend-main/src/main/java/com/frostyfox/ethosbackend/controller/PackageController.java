@@ -2,9 +2,12 @@ package com.frostyfox.ethosbackend.controller;
 
 import com.frostyfox.ethosbackend.model.PackagePriority;
 import com.frostyfox.ethosbackend.service.EthosService;
+import com.frostyfox.ethosbackend.service.PackageExport;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -16,6 +19,7 @@ import java.util.Map;
 public class PackageController {
     
     private final EthosService ethosService;
+    private final PackageExport packageExport;
     
     @GetMapping
     public ResponseEntity<List<PackagePriority>> getAllPackages() {
@@ -23,18 +27,67 @@ public class PackageController {
         return ResponseEntity.ok(packages);
     }
     
+    @GetMapping("/page")
+    public ResponseEntity<Map<String, Object>> getPackagesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        Map<String, Object> page = ethosService.getPackagesPage(cursor, limit, fields);
+        return page != null ? 
+            ResponseEntity.ok(page) : 
+            ResponseEntity.badRequest().build();
+    }
+    
     @GetMapping("/delivery-type/{type}")
     public ResponseEntity<List<PackagePriority>> getPackagesByDeliveryType(@PathVariable String type) {
         List<PackagePriority> packages = ethosService.getPackagesByDeliveryType(type);
         return ResponseEntity.ok(packages);
     }
     
+    @GetMapping("/delivery-type/{type}/page")
+    public ResponseEntity<Map<String, Object>> getPackagesByDeliveryTypePage(
+            @PathVariable String type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        Map<String, Object> page = ethosService.getPackagesByDeliveryTypePage(type, cursor, limit, fields);
+        return page != null ? 
+            ResponseEntity.ok(page) : 
+            ResponseEntity.badRequest().build();
+    }
+    
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getPackageStats() {
         Map<String, Object> stats = ethosService.getPackageStats();
         return ResponseEntity.ok(stats);
     }
     
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPackages(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) Integer minPriority,
+            @RequestParam(required = false) Integer maxPriority,
+            @RequestParam(required = false) String deliveryType,
+            @RequestParam(required = false) String createdFrom,
+            @RequestParam(required = false) String createdTo) {
+        PackageExport.Filter filter = new PackageExport.Filter(minPriority, maxPriority, deliveryType,
+            createdFrom, createdTo, null);
+        PackageExport.Format exportFormat = PackageExport.Format.parse(format);
+        if (exportFormat == null || !packageExport.isValid(filter)) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = packageExport.exportPackages(filter, exportFormat, gzip);
+        return body != null ?
+            ResponseEntity.ok().headers(PackageExport.headers("packages", exportFormat, gzip)).body(body) :
+            ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+    
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getEntityCacheStats() {
+        return ResponseEntity.ok(ethosService.getEntityCacheStats());
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<PackagePriority> getPackageById(@PathVariable Long id) {
         PackagePriority packagePriority = ethosService.getPackageById(id);
@@ -53,9 +106,26 @@ public class PackageController {
             ResponseEntity.notFound().build();
     }
     
+    @PostMapping("/rerank")
+    public ResponseEntity<Map<String, Object>> rerankPackages() {
+        Map<String, Object> result = ethosService.rerankAllPriorities();
+        return ResponseEntity.ok(result);
+    }
+    
     @PostMapping("/populate-explanations")
-    public ResponseEntity<Map<String, String>> populateExistingPackageExplanations() {
-        String result = ethosService.populateExistingPackageExplanations();
-        return ResponseEntity.ok(Map.of("message", result));
+    public ResponseEntity<Map<String, Object>> populateExistingPackageExplanations() {
+        Map<String, Object> job = ethosService.startExplanationBackfill();
+        return job != null ? 
+            ResponseEntity.accepted().body(job) : 
+            ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", "An explanation backfill is already running"));
+    }
+    
+    @GetMapping("/populate-explanations/{jobId}")
+    public ResponseEntity<Map<String, Object>> getExplanationBackfill(@PathVariable String jobId) {
+        Map<String, Object> job = ethosService.getExplanationBackfill(jobId);
+        return job != null ? 
+            ResponseEntity.ok(job) : 
+            ResponseEntity.notFound().build();
     }
 }
@@ -0,0 +1,21 @@
+package com.frostyfox.ethosbackend.model;
+
+import lombok.Value;
+
+// Parsed analyzer reply: the typed response, its JSON form as stored in the jsonb column, and
+// the score and delivery type derived from it. The JSON is written once here, so cache hits and
+// inherited results reuse it. inheritedFromPackageId is set when the result was reused from a
+// near-duplicate package.
+@Value
+public class AnalysisResult {
+    
+    AnalyzerResponse pythonResponse;
+    
+    String pythonResponseJson;
+    
+    Double ethicalScore;
+    
+    String deliveryType;
+    
+    String inheritedFromPackageId;
+}
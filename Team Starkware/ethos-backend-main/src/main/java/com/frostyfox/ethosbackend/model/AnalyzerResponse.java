@@ -0,0 +1,37 @@
+package com.frostyfox.ethosbackend.model;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Map;
+
+// Reply of the Python analyzer, decoded straight from the response body. domain is
+// optional: analyzers that do not send it only name the domain inside the explanation.
+// Fields this record does not model are kept in other, so toJson() reproduces the full reply.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AnalyzerResponse(
+    @JsonProperty("priority_level") Integer priorityLevel,
+    @JsonProperty("requires_approval") Boolean requiresApproval,
+    @JsonProperty("domain") String domain,
+    @JsonProperty("explanation") String explanation,
+    @JsonProperty("score") Score score,
+    @JsonAnySetter @JsonAnyGetter Map<String, Object> other) {
+
+    private static final JsonMapper JSON = JsonMapper.shared();
+
+    public String toJson() {
+        return JSON.writeValueAsString(this);
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Score(
+        @JsonProperty("harm_score") Double harmScore,
+        @JsonProperty("vulnerability_score") Double vulnerabilityScore,
+        @JsonProperty("time_score") Double timeScore,
+        @JsonProperty("total_score") Double totalScore,
+        @JsonAnySetter @JsonAnyGetter Map<String, Object> other) {
+    }
+}
@@ -26,8 +26,9 @@ public class Driver {
     
     private Integer totalCapacity;
     
-    @Column(columnDefinition = "TEXT")
-    private String assignedPackageIds; // JSON string of package IDs
+    private Double latitude;
+    
+    private Double longitude;
     
     private String status; // ACTIVE, INACTIVE, BUSY
     
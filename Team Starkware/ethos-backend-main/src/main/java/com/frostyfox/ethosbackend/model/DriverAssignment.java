@@ -0,0 +1,35 @@
+package com.frostyfox.ethosbackend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Entity
+@Table(name = "driver_assignments", indexes = {
+    @Index(name = "idx_driver_assignments_driver_assigned_at", columnList = "driver_id, assigned_at"),
+    @Index(name = "uk_driver_assignments_package_priority_id", columnList = "package_priority_id", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DriverAssignment {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long driverId;
+    
+    // Row id of the assigned package; a package holds at most one assignment. Null only on
+    // rows written before this column existed that could not be linked to a package.
+    private Long packagePriorityId;
+    
+    @Column(nullable = false)
+    private String packageId; // the package's packageId, kept for display
+    
+    private String assignedAt;
+    
+    private String state; // ASSIGNED, IN_TRANSIT, DELIVERED
+}
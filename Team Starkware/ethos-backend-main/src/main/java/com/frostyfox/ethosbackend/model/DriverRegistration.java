@@ -0,0 +1,15 @@
+package com.frostyfox.ethosbackend.model;
+
+import lombok.Data;
+
+// Request body for registering a driver or moving one. The position is given either as
+// latitude/longitude or as a location name known to the gazetteer.
+@Data
+public class DriverRegistration {
+    private String driverName;
+    private String route;
+    private Integer totalCapacity;
+    private Double latitude;
+    private Double longitude;
+    private String location;
+}
@@ -0,0 +1,30 @@
+package com.frostyfox.ethosbackend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+// Gazetteer entry resolving a pickup/destination location string to coordinates
+@Entity
+@Table(name = "locations", indexes = {
+    @Index(name = "idx_locations_normalized_name", columnList = "normalized_name", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Location {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    private String name;
+    
+    @Column(nullable = false)
+    private String normalizedName;
+    
+    private Double latitude;
+    
+    private Double longitude;
+}
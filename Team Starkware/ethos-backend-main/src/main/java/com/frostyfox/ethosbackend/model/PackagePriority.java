@@ -1,12 +1,17 @@
 package com.frostyfox.ethosbackend.model;
 
+import com.fasterxml.jackson.annotation.JsonRawValue;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.ColumnTransformer;
 
 @Entity
-@Table(name = "package_priorities")
+@Table(name = "package_priorities", indexes = {
+    @Index(name = "idx_package_priorities_current_priority", columnList = "current_priority"),
+    @Index(name = "idx_package_priorities_assigned_driver", columnList = "assigned_driver")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,7 +35,10 @@ public class PackagePriority {
     
     private Double ethicalScore;
     
-    @Column(columnDefinition = "TEXT")
+    // Analyzer reply as jsonb; served as a nested JSON object rather than a string
+    @Column(columnDefinition = "jsonb")
+    @ColumnTransformer(write = "?::jsonb")
+    @JsonRawValue
     private String pythonResponse;
     
     @Column(columnDefinition = "TEXT")
@@ -38,5 +46,9 @@ public class PackagePriority {
     
     private String assignedDriver;
     
+    private Boolean scoreInherited;
+    
+    private String inheritedFromPackageId; // packageId whose analysis was reused
+    
     private String createdAt;
 }
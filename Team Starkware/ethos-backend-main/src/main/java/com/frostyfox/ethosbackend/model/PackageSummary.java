@@ -0,0 +1,63 @@
+package com.frostyfox.ethosbackend.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Lightweight view of a PackagePriority row for listings. The text/jsonb columns are only
+// filled in when a caller asks for them through the fields parameter.
+@Data
+@NoArgsConstructor
+public class PackageSummary {
+    
+    private Long id;
+    
+    private String packageId;
+    
+    private Integer currentPriority;
+    
+    private String deliveryType;
+    
+    private String pickupLocation;
+    
+    private String destination;
+    
+    private String deliveryTime;
+    
+    private Double ethicalScore;
+    
+    private String assignedDriver;
+    
+    private Boolean scoreInherited;
+    
+    private String inheritedFromPackageId;
+    
+    private String createdAt;
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonRawValue
+    private String pythonResponse;
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String explanation;
+    
+    // Used by the JPQL constructor expressions in PackagePriorityRepository
+    public PackageSummary(Long id, String packageId, Integer currentPriority, String deliveryType,
+                          String pickupLocation, String destination, String deliveryTime,
+                          Double ethicalScore, String assignedDriver, Boolean scoreInherited,
+                          String inheritedFromPackageId, String createdAt) {
+        this.id = id;
+        this.packageId = packageId;
+        this.currentPriority = currentPriority;
+        this.deliveryType = deliveryType;
+        this.pickupLocation = pickupLocation;
+        this.destination = destination;
+        this.deliveryTime = deliveryTime;
+        this.ethicalScore = ethicalScore;
+        this.assignedDriver = assignedDriver;
+        this.scoreInherited = scoreInherited;
+        this.inheritedFromPackageId = inheritedFromPackageId;
+        this.createdAt = createdAt;
+    }
+}
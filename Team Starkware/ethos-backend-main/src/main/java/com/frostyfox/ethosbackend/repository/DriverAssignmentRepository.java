@@ -0,0 +1,72 @@
+package com.frostyfox.ethosbackend.repository;
+
+import com.frostyfox.ethosbackend.model.DriverAssignment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface DriverAssignmentRepository extends JpaRepository<DriverAssignment, Long> {
+    
+    long countByDriverId(Long driverId);
+    
+    // Served by idx_driver_assignments_driver_assigned_at
+    @Query("SELECT a.packageId AS packageId, a.state AS state, a.assignedAt AS assignedAt, " +
+            "p.id AS id, p.deliveryType AS deliveryType, p.pickupLocation AS pickupLocation, " +
+            "p.destination AS destination, p.ethicalScore AS ethicalScore " +
+            "FROM DriverAssignment a LEFT JOIN PackagePriority p ON p.id = a.packagePriorityId " +
+            "WHERE a.driverId = :driverId ORDER BY a.assignedAt ASC, a.id ASC")
+    List<AssignmentView> findAssignmentsByDriverId(@Param("driverId") Long driverId);
+    
+    // One-time backfill from the per-package driver names written before this table existed.
+    // Driver names are not unique, so a name resolves to its oldest driver: one row per package.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO driver_assignments (driver_id, package_priority_id, package_id, assigned_at, state) " +
+            "SELECT d.id, p.id, p.package_id, p.created_at, 'ASSIGNED' " +
+            "FROM package_priorities p " +
+            "JOIN (SELECT MIN(id) AS id, driver_name FROM drivers GROUP BY driver_name) d " +
+            "ON d.driver_name = p.assigned_driver " +
+            "WHERE p.package_id IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM driver_assignments)", nativeQuery = true)
+    int backfillFromPackages();
+    
+    // Links rows written before assignments carried the package row id. The n-th row of a
+    // packageId goes to the n-th unlinked package with it, so a duplicated packageId still
+    // links one to one; extra rows for the same package stay unlinked.
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE driver_assignments a SET package_priority_id = m.package_priority_id " +
+            "FROM (SELECT l.id, p.id AS package_priority_id " +
+            "FROM (SELECT id, package_id, ROW_NUMBER() OVER (PARTITION BY package_id ORDER BY id) AS rn " +
+            "FROM driver_assignments WHERE package_priority_id IS NULL) l " +
+            "JOIN (SELECT id, package_id, ROW_NUMBER() OVER (PARTITION BY package_id ORDER BY id) AS rn " +
+            "FROM package_priorities q WHERE NOT EXISTS " +
+            "(SELECT 1 FROM driver_assignments x WHERE x.package_priority_id = q.id)) p " +
+            "ON p.package_id = l.package_id AND p.rn = l.rn) m " +
+            "WHERE a.id = m.id", nativeQuery = true)
+    int linkPackageRows();
+    
+    // Copies renamed packageIds onto their assignment rows
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE driver_assignments a SET package_id = p.package_id FROM package_priorities p " +
+            "WHERE p.id = a.package_priority_id AND a.package_id <> p.package_id", nativeQuery = true)
+    int syncPackageIds();
+    
+    interface AssignmentView {
+        String getPackageId();
+        String getState();
+        String getAssignedAt();
+        Long getId();
+        String getDeliveryType();
+        String getPickupLocation();
+        String getDestination();
+        Double getEthicalScore();
+    }
+}
@@ -2,7 +2,11 @@ package com.frostyfox.ethosbackend.repository;
 
 import com.frostyfox.ethosbackend.model.Driver;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -12,4 +16,14 @@ public interface DriverRepository extends JpaRepository<Driver, Long> {
     List<Driver> findByStatus(String status);
     
     List<Driver> findAllByOrderByAssignedPackagesAsc();
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Driver d SET d.assignedPackages = :assigned, d.currentlyHeld = :held WHERE d.id = :id")
+    int updateLoad(@Param("id") Long id, @Param("assigned") int assigned, @Param("held") int held);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Driver d SET d.latitude = :latitude, d.longitude = :longitude WHERE d.id = :id")
+    int updatePosition(@Param("id") Long id, @Param("latitude") Double latitude, @Param("longitude") Double longitude);
 }
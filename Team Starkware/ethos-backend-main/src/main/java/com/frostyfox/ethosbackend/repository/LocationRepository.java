@@ -0,0 +1,16 @@
+package com.frostyfox.ethosbackend.repository;
+
+import com.frostyfox.ethosbackend.model.Location;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LocationRepository extends JpaRepository<Location, Long> {
+    
+    Optional<Location> findByNormalizedName(String normalizedName);
+    
+    List<Location> findAllByOrderByNameAsc();
+}
@@ -1,21 +1,148 @@
 package com.frostyfox.ethosbackend.repository;
 
 import com.frostyfox.ethosbackend.model.PackagePriority;
+import com.frostyfox.ethosbackend.model.PackageSummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface PackagePriorityRepository extends JpaRepository<PackagePriority, Long> {
     
+    String SUMMARY_SELECT = "SELECT new com.frostyfox.ethosbackend.model.PackageSummary(" +
+            "p.id, p.packageId, p.currentPriority, p.deliveryType, p.pickupLocation, p.destination, " +
+            "p.deliveryTime, p.ethicalScore, p.assignedDriver, p.scoreInherited, p.inheritedFromPackageId, " +
+            "p.createdAt) FROM PackagePriority p ";
+    
+    // A missing score ranks as 0, as in the re-rank and PriorityIndex; the expression matches
+    // the indexes created by ScoreOrderIndexMigration
+    String SCORE_KEY = "COALESCE(p.ethicalScore, 0.0)";
+    
+    // Keyset condition for rows after (score, id) in (ethicalScore DESC, id ASC) order
+    String AFTER_CURSOR = "(" + SCORE_KEY + " < :score OR (" + SCORE_KEY + " = :score AND p.id > :id)) ";
+    
+    String KEYSET_ORDER = "ORDER BY " + SCORE_KEY + " DESC, p.id ASC";
+    
     @Query("SELECT p FROM PackagePriority p WHERE p.currentPriority <= ?1 ORDER BY p.currentPriority ASC")
     List<PackagePriority> findPackagesWithPriorityOrHigher(Integer priority);
     
     @Query("SELECT p FROM PackagePriority p WHERE p.currentPriority >= ?1 ORDER BY p.currentPriority ASC")
     List<PackagePriority> findPackagesWithPriorityOrLower(Integer priority);
     
-    @Query("SELECT p FROM PackagePriority p ORDER BY p.ethicalScore DESC")
+    @Query("SELECT p FROM PackagePriority p " + KEYSET_ORDER)
     List<PackagePriority> findAllOrderByEthicalScoreDesc();
+    
+    @Query("SELECT MAX(p.id) FROM PackagePriority p")
+    Long findMaxId();
+    
+    // Largest number among the PKG-<number> IDs, ignoring suffixed and malformed ones
+    @Query(value = "SELECT CAST(MAX(n) AS BIGINT) FROM (SELECT CAST(SUBSTRING(package_id FROM 5) AS NUMERIC) AS n " +
+            "FROM package_priorities WHERE package_id ~ '^PKG-[0-9]{1,19}$') ids " +
+            "WHERE n <= 9223372036854775807", nativeQuery = true)
+    Long findMaxPackageNumber();
+    
+    // Keeps the oldest row of each duplicated packageId and suffixes the rest with their row id
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE package_priorities p SET package_id = p.package_id || '-' || p.id " +
+            "WHERE EXISTS (SELECT 1 FROM package_priorities q WHERE q.package_id = p.package_id AND q.id < p.id)",
+            nativeQuery = true)
+    int dedupePackageIds();
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE PackagePriority p SET p.explanation = :explanation WHERE p.id = :id")
+    int updateExplanation(@Param("id") Long id, @Param("explanation") String explanation);
+    
+    // Unassigns every package ahead of a bulk reassignment
+    @Modifying
+    @Transactional
+    @Query("UPDATE PackagePriority p SET p.assignedDriver = NULL WHERE p.assignedDriver IS NOT NULL")
+    int clearAssignedDrivers();
+    
+    // Rewrites current_priority for the whole table in one statement; only changed rows are touched
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE package_priorities p SET current_priority = r.rn " +
+            "FROM (SELECT id, ROW_NUMBER() OVER (ORDER BY COALESCE(ethical_score, 0) DESC, id ASC) AS rn " +
+            "FROM package_priorities) r " +
+            "WHERE p.id = r.id AND p.current_priority IS DISTINCT FROM r.rn", nativeQuery = true)
+    int rerankByEthicalScore();
+    
+    @Query("SELECT p.id AS id, p.ethicalScore AS ethicalScore FROM PackagePriority p")
+    List<ScoreView> findAllScores();
+    
+    // Tier thresholds match EthosService.calculatePriority
+    @Query("SELECT p.deliveryType AS deliveryType, " +
+            "CASE WHEN p.ethicalScore >= 8.0 THEN 1 WHEN p.ethicalScore >= 6.0 THEN 2 " +
+            "WHEN p.ethicalScore >= 4.0 THEN 3 ELSE 4 END AS tier, " +
+            "COUNT(p) AS packages, " +
+            "SUM(COALESCE(p.ethicalScore, 0.0)) AS scoreSum, " +
+            "SUM(CASE WHEN p.pythonResponse IS NOT NULL THEN 1 ELSE 0 END) AS analyzed " +
+            "FROM PackagePriority p WHERE p.id <= :maxId " +
+            "GROUP BY p.deliveryType, " +
+            "CASE WHEN p.ethicalScore >= 8.0 THEN 1 WHEN p.ethicalScore >= 6.0 THEN 2 " +
+            "WHEN p.ethicalScore >= 4.0 THEN 3 ELSE 4 END")
+    List<StatsView> aggregateStats(@Param("maxId") Long maxId);
+    
+    @Query(SUMMARY_SELECT + "WHERE " + AFTER_CURSOR + KEYSET_ORDER)
+    List<PackageSummary> findSummariesAfter(@Param("score") Double score, @Param("id") Long id, Limit limit);
+    
+    @Query(SUMMARY_SELECT + "WHERE p.deliveryType = :deliveryType AND " + AFTER_CURSOR + KEYSET_ORDER)
+    List<PackageSummary> findSummariesByDeliveryTypeAfter(@Param("deliveryType") String deliveryType,
+                                                          @Param("score") Double score, @Param("id") Long id,
+                                                          Limit limit);
+    
+    @Query(SUMMARY_SELECT + "WHERE p.pythonResponse IS NOT NULL AND " +
+            AFTER_CURSOR + KEYSET_ORDER)
+    List<PackageSummary> findAnalyzedSummariesAfter(@Param("score") Double score, @Param("id") Long id, Limit limit);
+    
+    @Query("SELECT p FROM PackagePriority p WHERE p.deliveryType = :deliveryType " + KEYSET_ORDER)
+    List<PackagePriority> findByDeliveryTypeOrderByScore(@Param("deliveryType") String deliveryType);
+    
+    // Packages created before the cutoff (ISO-8601 strings compare chronologically) that have
+    // no driver; both queries are served by the partial idx_package_priorities_unassigned
+    @Query("SELECT p FROM PackagePriority p WHERE p.assignedDriver IS NULL " +
+            "AND (p.createdAt IS NULL OR p.createdAt < :createdBefore) ORDER BY p.id ASC")
+    List<PackagePriority> findUnassignedPackages(@Param("createdBefore") String createdBefore, Limit limit);
+    
+    @Query("SELECT COUNT(p) FROM PackagePriority p WHERE p.assignedDriver IS NULL")
+    long countUnassignedPackages();
+    
+    // Keyset scan by id over packages that still have no explanation
+    @Query(SUMMARY_SELECT + "WHERE (p.explanation IS NULL OR p.explanation = '') AND p.id > :id ORDER BY p.id ASC")
+    List<PackageSummary> findMissingExplanationsAfter(@Param("id") Long id, Limit limit);
+    
+    @Query("SELECT COUNT(p) FROM PackagePriority p WHERE p.explanation IS NULL OR p.explanation = ''")
+    long countMissingExplanations();
+    
+    @Query("SELECT p.id AS id, p.pythonResponse AS pythonResponse, p.explanation AS explanation " +
+            "FROM PackagePriority p WHERE p.id IN :ids")
+    List<TextView> findTextsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    interface ScoreView {
+        Long getId();
+        Double getEthicalScore();
+    }
+    
+    interface TextView {
+        Long getId();
+        String getPythonResponse();
+        String getExplanation();
+    }
+    
+    interface StatsView {
+        String getDeliveryType();
+        Integer getTier();
+        Long getPackages();
+        Double getScoreSum();
+        Long getAnalyzed();
+    }
 }
@@ -0,0 +1,97 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.AnalysisResult;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+// Bounded cache of parsed analyzer results keyed by a hash of the normalized package
+// description. Concurrent misses for the same description share one analyzer call.
+@Component
+@Slf4j
+public class AnalysisCache {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final boolean enabled;
+    private final AsyncCache<String, AnalysisResult> cache;
+
+    public AnalysisCache(@Value("${ethos.analysis-cache.enabled:true}") boolean enabled,
+                         @Value("${ethos.analysis-cache.max-size:10000}") long maxSize,
+                         @Value("${ethos.analysis-cache.ttl-minutes:60}") long ttlMinutes) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .recordStats()
+                .buildAsync();
+    }
+
+    public AnalysisResult get(String description, Function<String, AnalysisResult> analyzer) {
+        if (!enabled) {
+            return analyzer.apply(description);
+        }
+        try {
+            return cache.get(key(description), key -> analyzer.apply(description)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.synchronous().stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("size", cache.synchronous().estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("evictions", stats.evictionCount());
+        result.put("hitRate", stats.hitRate());
+        return result;
+    }
+
+    public long flush() {
+        long size = cache.synchronous().estimatedSize();
+        cache.synchronous().invalidateAll();
+        log.info("Flushed analysis cache ({} entries)", size);
+        return size;
+    }
+
+    // Lower-cases and collapses punctuation/whitespace so trivially different text shares a key
+    static String normalize(String description) {
+        if (description == null) {
+            return "";
+        }
+        return SEPARATORS.matcher(description.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    static String key(String description) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(normalize(description).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
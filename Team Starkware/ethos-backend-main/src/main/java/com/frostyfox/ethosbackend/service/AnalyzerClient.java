@@ -0,0 +1,226 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.AnalyzerResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Client for the Python /ai/analyze service. Concurrent calls are coalesced into one
+// POST /ai/analyze/batch request per window (max-batch-size items or max-wait-ms):
+//   request:  {"items": [{"id": "0", "description": "..."}, ...]}
+//   response: {"results": [{"id": "0", "result": {...same body as /ai/analyze...}}, ...]}
+// Replies are decoded by Jackson straight into AnalyzerResponse.
+// If the analyzer does not support batching (404/405/415/501) the client switches to
+// per-item calls for good; items missing from a batch reply are retried individually.
+// Any other batch failure fails every caller of that batch, and no caller waits longer
+// than timeout-ms for its result.
+@Component
+@Slf4j
+public class AnalyzerClient {
+
+    private static final String ANALYZE_URI = "/ai/analyze";
+    private static final String BATCH_URI = "/ai/analyze/batch";
+    private static final Set<HttpStatus> BATCH_UNSUPPORTED = Set.of(HttpStatus.NOT_FOUND,
+            HttpStatus.METHOD_NOT_ALLOWED, HttpStatus.UNSUPPORTED_MEDIA_TYPE, HttpStatus.NOT_IMPLEMENTED);
+
+    private final WebClient webClient;
+    private final boolean batchEnabled;
+    private final int maxBatchSize;
+    private final long maxWaitMs;
+    private final Duration timeout;
+
+    private final BlockingQueue<PendingAnalysis> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService dispatchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean batchSupported = true;
+    private final Thread collector;
+
+    public AnalyzerClient(WebClient webClient,
+                          @Value("${ethos.analyzer.batch.enabled:true}") boolean batchEnabled,
+                          @Value("${ethos.analyzer.batch.max-size:32}") int maxBatchSize,
+                          @Value("${ethos.analyzer.batch.max-wait-ms:10}") long maxWaitMs,
+                          @Value("${ethos.analyzer.timeout-ms:30000}") long timeoutMs) {
+        this.webClient = webClient;
+        this.batchEnabled = batchEnabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitMs = maxWaitMs;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.collector = Thread.ofVirtual().name("analyzer-batch-collector").start(this::collectBatches);
+    }
+
+    public AnalyzerResponse analyze(String description) {
+        if (!batchEnabled || !batchSupported) {
+            return analyzeSingle(description);
+        }
+
+        PendingAnalysis pending = new PendingAnalysis(description);
+        queue.add(pending);
+        try {
+            return pending.result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            pending.result.cancel(false);
+            throw new IllegalStateException("Analyzer did not answer within " + timeout.toMillis() + " ms");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Analyzer call failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the analyzer", e);
+        }
+    }
+
+    public boolean isBatchSupported() {
+        return batchSupported;
+    }
+
+    @PreDestroy
+    public void close() {
+        collector.interrupt();
+        dispatchExecutor.shutdown();
+    }
+
+    private AnalyzerResponse analyzeSingle(String description) {
+        return webClient.post()
+                .uri(ANALYZE_URI)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("description", description))
+                .retrieve()
+                .bodyToMono(AnalyzerResponse.class)
+                .block(timeout);
+    }
+
+    private void collectBatches() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<PendingAnalysis> batch = new ArrayList<>();
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+                while (batch.size() < maxBatchSize) {
+                    PendingAnalysis next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                dispatchExecutor.execute(() -> dispatch(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void dispatch(List<PendingAnalysis> batch) {
+        if (batch.size() == 1 || !batchSupported) {
+            batch.forEach(this::completeSingleAsync);
+            return;
+        }
+
+        Map<String, AnalyzerResponse> results;
+        try {
+            results = analyzeBatch(batch);
+        } catch (WebClientResponseException e) {
+            HttpStatus status = HttpStatus.resolve(e.getStatusCode().value());
+            if (!BATCH_UNSUPPORTED.contains(status)) {
+                failAll(batch, e);
+                return;
+            }
+            if (batchSupported) {
+                batchSupported = false;
+                log.warn("Analyzer does not support {} ({}), falling back to per-item calls", BATCH_URI, status);
+            }
+            batch.forEach(this::completeSingleAsync);
+            return;
+        } catch (Exception e) {
+            failAll(batch, e);
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            AnalyzerResponse result = results.get(String.valueOf(i));
+            if (result != null) {
+                batch.get(i).result.complete(result);
+            } else {
+                completeSingleAsync(batch.get(i));
+            }
+        }
+    }
+
+    // A failed batch is not retried item by item: that would multiply the load on an
+    // analyzer that is already failing
+    private void failAll(List<PendingAnalysis> batch, Exception e) {
+        log.error("Batch analyze request for {} items failed", batch.size(), e);
+        batch.forEach(pending -> pending.result.completeExceptionally(e));
+    }
+
+    private Map<String, AnalyzerResponse> analyzeBatch(List<PendingAnalysis> batch) {
+        List<Map<String, String>> items = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            items.add(Map.of("id", String.valueOf(i), "description", batch.get(i).description));
+        }
+
+        BatchResponse response = webClient.post()
+                .uri(BATCH_URI)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("items", items))
+                .retrieve()
+                .bodyToMono(BatchResponse.class)
+                .block(timeout);
+
+        Map<String, AnalyzerResponse> results = new HashMap<>();
+        if (response != null && response.results() != null) {
+            for (BatchResult item : response.results()) {
+                if (item != null && item.id() != null && item.result() != null) {
+                    results.put(item.id(), item.result());
+                }
+            }
+        }
+        return results;
+    }
+
+    private void completeSingleAsync(PendingAnalysis pending) {
+        dispatchExecutor.execute(() -> {
+            try {
+                pending.result.complete(analyzeSingle(pending.description));
+            } catch (Exception e) {
+                pending.result.completeExceptionally(e);
+            }
+        });
+    }
+
+    private static final class PendingAnalysis {
+        private final String description;
+        private final CompletableFuture<AnalyzerResponse> result = new CompletableFuture<>();
+
+        private PendingAnalysis(String description) {
+            this.description = description;
+        }
+    }
+
+    // Envelope of a /ai/analyze/batch reply
+    record BatchResponse(List<BatchResult> results) {
+    }
+
+    record BatchResult(String id, AnalyzerResponse result) {
+    }
+}
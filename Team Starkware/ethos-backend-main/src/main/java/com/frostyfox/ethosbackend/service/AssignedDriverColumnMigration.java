@@ -0,0 +1,38 @@
+package com.frostyfox.ethosbackend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Older assignment code could leave assigned_driver empty, or holding a JSON array or a
+// package id instead of a driver name. Those values are cleared once here, so an unassigned
+// package is always assigned_driver IS NULL. The reconciler's queries then run on a partial
+// index that holds only unassigned packages, and stay cheap when there are none.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AssignedDriverColumnMigration {
+
+    private static final String CLEAR_MALFORMED_SQL = "UPDATE package_priorities SET assigned_driver = NULL " +
+        "WHERE assigned_driver = '' OR assigned_driver LIKE '[%' OR assigned_driver LIKE '%PKG-%'";
+    private static final String UNASSIGNED_INDEX_SQL = "CREATE INDEX IF NOT EXISTS idx_package_priorities_unassigned " +
+        "ON package_priorities (id) WHERE assigned_driver IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void clearMalformedDrivers() {
+        try {
+            int cleared = jdbcTemplate.update(CLEAR_MALFORMED_SQL);
+            if (cleared > 0) {
+                log.warn("Cleared {} malformed assigned_driver values", cleared);
+            }
+            jdbcTemplate.execute(UNASSIGNED_INDEX_SQL);
+        } catch (Exception e) {
+            log.error("Error clearing malformed assigned_driver values", e);
+        }
+    }
+}
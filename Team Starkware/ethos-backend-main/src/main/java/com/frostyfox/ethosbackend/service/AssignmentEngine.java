@@ -0,0 +1,29 @@
+package com.frostyfox.ethosbackend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Picks the AssignmentStrategy named by ethos.assignment.strategy
+@Component
+@Slf4j
+public class AssignmentEngine {
+
+    private final AssignmentStrategy strategy;
+
+    public AssignmentEngine(List<AssignmentStrategy> strategies,
+                            @Value("${ethos.assignment.strategy:capacity-aware}") String name) {
+        this.strategy = strategies.stream()
+            .filter(candidate -> candidate.getName().equalsIgnoreCase(name))
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException("Unknown assignment strategy '" + name + "', expected one of " +
+                strategies.stream().map(AssignmentStrategy::getName).toList()));
+        log.info("Using {} driver assignment", strategy.getName());
+    }
+
+    public AssignmentStrategy getStrategy() {
+        return strategy;
+    }
+}
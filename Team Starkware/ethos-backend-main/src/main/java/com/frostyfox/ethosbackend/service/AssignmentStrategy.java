@@ -0,0 +1,19 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.PackagePriority;
+
+import java.util.List;
+
+// Decides which driver carries each package. Strategies return positions into the
+// driver view they are given; DistributionService and DriverLoadRegistry apply them.
+public interface AssignmentStrategy {
+
+    // Value of ethos.assignment.strategy that selects this strategy
+    String getName();
+
+    // Chooses a driver for every package, in the order given (highest priority first)
+    int[] assignAll(DriverLoadView drivers, List<PackagePriority> packages);
+
+    // Chooses a driver for one new package given the drivers' current loads
+    int assignOne(DriverLoadView drivers, PackagePriority pkg);
+}
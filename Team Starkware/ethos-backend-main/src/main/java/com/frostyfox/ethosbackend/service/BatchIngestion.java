@@ -0,0 +1,389 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.AnalysisResult;
+import com.frostyfox.ethosbackend.model.EthosModel;
+import com.frostyfox.ethosbackend.model.PackagePriority;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+// Bulk ingestion for POST /api/ethos/batch. The body is an NDJSON stream or a JSON array of
+// submissions and is parsed one record at a time as it arrives. Each record is analyzed on
+// a virtual thread, with at most analyzer-concurrency in flight per batch; concurrent
+// analyses share the analysis cache and coalesce into analyzer batch calls. Results are
+// taken in input order and inserted with one JDBC batch per chunk. Each chunk's result lines
+// are then streamed back as NDJSON. The new packages are ranked in one pass at the end, their
+// ranks written back with one more JDBC batch, and left to the assignment reconciler. A record that cannot be parsed or analyzed gets an error
+// line and does not stop the batch, except in a JSON array, where parsing cannot resume
+// after a syntax error.
+@Component
+@Slf4j
+public class BatchIngestion {
+
+    private static final String INSERT_PACKAGE_SQL =
+        "INSERT INTO package_priorities (package_id, current_priority, delivery_type, pickup_location, destination, " +
+        "delivery_time, ethical_score, python_response, explanation, score_inherited, inherited_from_package_id, " +
+        "created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?, ?, ?, ?)";
+    private static final String UPDATE_PRIORITY_SQL =
+        "UPDATE package_priorities SET current_priority = ? WHERE id = ?";
+
+    private final EthosService ethosService;
+    private final PriorityIndex priorityIndex;
+    private final DashboardEvents dashboardEvents;
+    private final IngestionMetrics ingestionMetrics;
+    private final JsonMapper jsonMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int analyzerConcurrency;
+    private final long timeoutMs;
+    private final Semaphore batchSlots;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public BatchIngestion(EthosService ethosService,
+                          PriorityIndex priorityIndex,
+                          DashboardEvents dashboardEvents,
+                          IngestionMetrics ingestionMetrics,
+                          JsonMapper jsonMapper,
+                          JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${ethos.batch-ingest.chunk-size:500}") int chunkSize,
+                          @Value("${ethos.batch-ingest.analyzer-concurrency:64}") int analyzerConcurrency,
+                          @Value("${ethos.batch-ingest.max-concurrent:4}") int maxConcurrent,
+                          @Value("${ethos.batch-ingest.timeout-ms:3600000}") long timeoutMs) {
+        this.ethosService = ethosService;
+        this.priorityIndex = priorityIndex;
+        this.dashboardEvents = dashboardEvents;
+        this.ingestionMetrics = ingestionMetrics;
+        this.jsonMapper = jsonMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.analyzerConcurrency = analyzerConcurrency;
+        this.timeoutMs = timeoutMs;
+        this.batchSlots = new Semaphore(maxConcurrent);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Starts reading the body in the background; null when max-concurrent batches are running
+    public ResponseBodyEmitter start(InputStream body) {
+        if (!batchSlots.tryAcquire()) {
+            return null;
+        }
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMs);
+        try {
+            executor.execute(() -> run(body, emitter));
+        } catch (Exception e) {
+            batchSlots.release();
+            throw e;
+        }
+        return emitter;
+    }
+
+    private void run(InputStream body, ResponseBodyEmitter emitter) {
+        Batch batch = new Batch(emitter);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            if (startsWithArray(reader)) {
+                readArray(reader, batch);
+            } else {
+                readLines(reader, batch);
+            }
+            batch.finish();
+            rank(batch);
+            emitter.send(toLine(Map.of("summary", batch.summary("COMPLETED", null))), MediaType.APPLICATION_NDJSON);
+            emitter.complete();
+            log.info("Batch ingest accepted {} packages, rejected {} in {} ms",
+                batch.accepted, batch.rejected, batch.elapsedMs());
+        } catch (Exception e) {
+            // Chunks written so far stay; they are ranked so they are not missing from the index
+            log.error("Batch ingest failed after {} records", batch.records, e);
+            rank(batch);
+            try {
+                emitter.send(toLine(Map.of("summary", batch.summary("FAILED", e.getMessage()))), MediaType.APPLICATION_NDJSON);
+                emitter.complete();
+            } catch (Exception sendFailure) {
+                // The client is gone
+                emitter.completeWithError(e);
+            }
+        } finally {
+            batchSlots.release();
+        }
+    }
+
+    private void readLines(BufferedReader reader, Batch batch) throws IOException {
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            EthosModel model;
+            try {
+                model = jsonMapper.readValue(line, EthosModel.class);
+            } catch (Exception e) {
+                batch.add(new Entry(lineNumber, null, CompletableFuture.failedFuture(
+                    new IllegalArgumentException("Malformed JSON: " + e.getMessage()))));
+                continue;
+            }
+            batch.add(new Entry(lineNumber, model, analyze(model)));
+        }
+    }
+
+    private void readArray(BufferedReader reader, Batch batch) throws IOException {
+        int position = 0;
+        try (MappingIterator<EthosModel> records = jsonMapper.readerFor(EthosModel.class).readValues(reader)) {
+            while (true) {
+                EthosModel model;
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    position++;
+                    model = records.nextValue();
+                } catch (Exception e) {
+                    batch.add(new Entry(position, null, CompletableFuture.failedFuture(
+                        new IllegalArgumentException("Malformed JSON, stopped reading: " + e.getMessage()))));
+                    break;
+                }
+                batch.add(new Entry(position, model, analyze(model)));
+            }
+        }
+    }
+
+    private CompletableFuture<AnalysisResult> analyze(EthosModel model) {
+        if (model == null || model.getPackageDescription() == null || model.getPackageDescription().isBlank()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("packageDescription is required"));
+        }
+        return CompletableFuture.supplyAsync(() -> ethosService.analyze(model), executor);
+    }
+
+    // Looks past leading whitespace without consuming the first real character
+    private static boolean startsWithArray(BufferedReader reader) throws IOException {
+        while (true) {
+            reader.mark(1);
+            int next = reader.read();
+            if (next < 0) {
+                return false;
+            }
+            if (!Character.isWhitespace(next)) {
+                reader.reset();
+                return next == '[';
+            }
+        }
+    }
+
+    // Rows were inserted with their tier as current_priority; like a single submission's
+    // ranked snapshot, the rank they get here replaces it
+    private void rank(Batch batch) {
+        if (batch.written.isEmpty()) {
+            return;
+        }
+        ingestionMetrics.timeBatch(IngestionMetrics.RANK, batch.written.size(), () -> {
+            priorityIndex.addAll(batch.written);
+            List<Long> ids = new ArrayList<>(batch.written.keySet());
+            try {
+                jdbcTemplate.batchUpdate(UPDATE_PRIORITY_SQL, ids, chunkSize, (ps, id) -> {
+                    ps.setObject(1, priorityIndex.priorityOf(id));
+                    ps.setLong(2, id);
+                });
+            } catch (Exception e) {
+                // The startup re-rank brings them in line again
+                log.error("Error saving the priorities of {} batch-ingested packages", ids.size(), e);
+            }
+        });
+        batch.written.clear();
+        dashboardEvents.resync("batch-ingest");
+    }
+
+    // Inserts the chunk's analyzed rows in one JDBC batch and returns their generated ids in order
+    private List<Long> insert(List<PackagePriority> packages) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(INSERT_PACKAGE_SQL, new String[]{"id"}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    PackagePriority pkg = packages.get(i);
+                    ps.setString(1, pkg.getPackageId());
+                    ps.setObject(2, pkg.getCurrentPriority());
+                    ps.setString(3, pkg.getDeliveryType());
+                    ps.setString(4, pkg.getPickupLocation());
+                    ps.setString(5, pkg.getDestination());
+                    ps.setString(6, pkg.getDeliveryTime());
+                    ps.setObject(7, pkg.getEthicalScore());
+                    ps.setString(8, pkg.getPythonResponse());
+                    ps.setString(9, pkg.getExplanation());
+                    ps.setObject(10, pkg.getScoreInherited());
+                    ps.setString(11, pkg.getInheritedFromPackageId());
+                    ps.setString(12, pkg.getCreatedAt());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return packages.size();
+                }
+            },
+            keys));
+        return keys.getKeyList().stream().map(key -> ((Number) key.get("id")).longValue()).toList();
+    }
+
+    private String toLine(Object value) {
+        return jsonMapper.writeValueAsString(value) + "\n";
+    }
+
+    private record Entry(int line, EthosModel model, CompletableFuture<AnalysisResult> analysis) {
+    }
+
+    // State of one request: the in-flight window in input order and the chunk being filled
+    private final class Batch {
+        private final ResponseBodyEmitter emitter;
+        private final long startNanos = System.nanoTime();
+        private final ArrayDeque<Entry> window = new ArrayDeque<>();
+        private final List<Entry> chunk = new ArrayList<>();
+        private final Map<Long, Double> written = new HashMap<>();
+        private long records;
+        private long accepted;
+        private long rejected;
+
+        private Batch(ResponseBodyEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // Blocks on the oldest record once the window is full, which also slows the reader
+        private void add(Entry entry) throws IOException {
+            records++;
+            window.add(entry);
+            while (window.size() > analyzerConcurrency) {
+                take();
+            }
+        }
+
+        private void finish() throws IOException {
+            while (!window.isEmpty()) {
+                take();
+            }
+            flush();
+        }
+
+        private void take() throws IOException {
+            Entry entry = window.poll();
+            try {
+                entry.analysis.join();
+            } catch (CompletionException e) {
+                // Reported when the chunk is flushed
+            }
+            chunk.add(entry);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<Entry> analyzed = new ArrayList<>(chunk.size());
+            List<PackagePriority> packages = new ArrayList<>(chunk.size());
+            for (Entry entry : chunk) {
+                if (!entry.analysis.isCompletedExceptionally()) {
+                    analyzed.add(entry);
+                    packages.add(ethosService.newPackage(entry.model, entry.analysis.join()));
+                }
+            }
+            List<Long> ids = new ArrayList<>(packages.size());
+            if (!packages.isEmpty()) {
+                ingestionMetrics.timeBatch(IngestionMetrics.PERSIST, packages.size(), () -> ids.addAll(insert(packages)));
+            }
+            for (int i = 0; i < packages.size(); i++) {
+                PackagePriority pkg = packages.get(i);
+                pkg.setId(ids.get(i));
+                ethosService.recordPersisted(analyzed.get(i).model, pkg, analyzed.get(i).analysis.join());
+                written.put(pkg.getId(), pkg.getEthicalScore());
+            }
+
+            StringBuilder lines = new StringBuilder();
+            int next = 0;
+            for (Entry entry : chunk) {
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("line", entry.line);
+                if (next < packages.size() && analyzed.get(next) == entry) {
+                    PackagePriority pkg = packages.get(next++);
+                    result.put("status", "ACCEPTED");
+                    result.put("id", pkg.getId());
+                    result.put("packageId", pkg.getPackageId());
+                    result.put("deliveryType", pkg.getDeliveryType());
+                    result.put("ethicalScore", pkg.getEthicalScore());
+                    result.put("scoreInherited", pkg.getScoreInherited());
+                    accepted++;
+                } else {
+                    result.put("status", "REJECTED");
+                    result.put("error", errorOf(entry));
+                    rejected++;
+                }
+                lines.append(toLine(result));
+            }
+            chunk.clear();
+            emitter.send(lines.toString(), MediaType.APPLICATION_NDJSON);
+        }
+
+        private Map<String, Object> summary(String status, String error) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("status", status);
+            summary.put("records", records);
+            summary.put("accepted", accepted);
+            summary.put("rejected", rejected);
+            summary.put("rankedPackages", priorityIndex.size());
+            summary.put("elapsedMs", elapsedMs());
+            summary.put("error", error);
+            return summary;
+        }
+
+        private long elapsedMs() {
+            return (System.nanoTime() - startNanos) / 1_000_000;
+        }
+    }
+
+    private static String errorOf(Entry entry) {
+        try {
+            entry.analysis.join();
+            return null;
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return cause.getMessage();
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.PackagePriority;
+import com.frostyfox.ethosbackend.model.PackageSummary;
+import com.frostyfox.ethosbackend.repository.PackagePriorityRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Reassigns the whole package table to drivers in the background. Packages are streamed
+// in keyset chunks of (ethicalScore DESC, id), so only one chunk is in memory. Each chunk
+// is split into slices that are assigned in parallel on a fork-join pool, each slice
+// against its own deterministic share of every driver's remaining capacity; the slices
+// are merged back in package order and written with JDBC batch statements in one short
+// transaction per chunk. A package its ingestion assigned meanwhile keeps that driver and
+// is left out of the chunk's loads, so no package is counted twice.
+@Component
+@Slf4j
+public class BulkReassignmentJob {
+
+    private static final String UPDATE_PACKAGE_SQL =
+        "UPDATE package_priorities SET assigned_driver = ? WHERE id = ?";
+    // Skips packages their ingestion assigned since the reassignment cleared them
+    private static final String INSERT_ASSIGNMENT_SQL =
+        "INSERT INTO driver_assignments (driver_id, package_priority_id, package_id, assigned_at, state) " +
+        "VALUES (?, ?, ?, ?, 'ASSIGNED') ON CONFLICT (package_priority_id) DO NOTHING";
+
+    private final PackagePriorityRepository packagePriorityRepository;
+    private final DriverLoadRegistry driverLoadRegistry;
+    private final AssignmentEngine assignmentEngine;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final IngestionMetrics ingestionMetrics;
+    private final DashboardEvents dashboardEvents;
+    private final EntityCache entityCache;
+    private final int chunkSize;
+    private final ForkJoinPool computePool;
+    private final JobTracker<JobStatus> jobs;
+
+    public BulkReassignmentJob(PackagePriorityRepository packagePriorityRepository,
+                               DriverLoadRegistry driverLoadRegistry,
+                               AssignmentEngine assignmentEngine,
+                               JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               IngestionMetrics ingestionMetrics,
+                               DashboardEvents dashboardEvents,
+                               EntityCache entityCache,
+                               @Value("${ethos.reassignment.chunk-size:2000}") int chunkSize,
+                               @Value("${ethos.reassignment.parallelism:0}") int parallelism,
+                               @Value("${ethos.reassignment.retained-jobs:20}") int retainedJobs) {
+        this.packagePriorityRepository = packagePriorityRepository;
+        this.driverLoadRegistry = driverLoadRegistry;
+        this.assignmentEngine = assignmentEngine;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.ingestionMetrics = ingestionMetrics;
+        this.dashboardEvents = dashboardEvents;
+        this.entityCache = entityCache;
+        this.chunkSize = chunkSize;
+        this.computePool = JobTracker.newPool(parallelism);
+        this.jobs = new JobTracker<>(retainedJobs);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.shutdown();
+        computePool.shutdown();
+    }
+
+    public boolean isRunning() {
+        return jobs.isRunning();
+    }
+
+    // Claims the single job slot; returns null when a job is already running. The caller
+    // prepares drivers and clears old assignments, then calls start() with the claimed job.
+    public Map<String, Object> claim() {
+        JobStatus job = new JobStatus();
+        return jobs.claim(job) ? job.toMap() : null;
+    }
+
+    // Releases a claimed job that could not be started
+    public void abandon(String jobId, Exception cause) {
+        JobStatus job = jobs.running();
+        if (job != null && job.jobId.equals(jobId)) {
+            job.fail(cause);
+            jobs.finish(job);
+        }
+    }
+
+    // Starts the claimed job over packages with id <= maxPackageId
+    public Map<String, Object> start(String jobId, Long maxPackageId, long totalPackages) {
+        JobStatus job = jobs.running();
+        if (job == null || !job.jobId.equals(jobId)) {
+            throw new IllegalStateException("Reassignment job " + jobId + " is not claimed");
+        }
+        job.totalPackages = totalPackages;
+        job.strategy = assignmentEngine.getStrategy().getName();
+        job.state = JobTracker.JobState.RUNNING;
+        jobs.submit(() -> run(job, maxPackageId != null ? maxPackageId : 0L));
+        return job.toMap();
+    }
+
+    public Map<String, Object> getStatus(String jobId) {
+        return jobs.getStatus(jobId);
+    }
+
+    private void run(JobStatus job, long maxPackageId) {
+        try {
+            Double score = Double.MAX_VALUE;
+            Long id = 0L;
+            while (true) {
+                List<PackageSummary> chunk = packagePriorityRepository.findSummariesAfter(score, id, Limit.of(chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                PackageSummary last = chunk.get(chunk.size() - 1);
+                score = last.getEthicalScore() != null ? last.getEthicalScore() : 0.0;
+                id = last.getId();
+
+                // Packages ingested after the job started were assigned by their ingestion
+                List<PackagePriority> packages = new ArrayList<>(chunk.size());
+                for (PackageSummary summary : chunk) {
+                    if (summary.getId() <= maxPackageId) {
+                        packages.add(toPackage(summary));
+                    }
+                }
+                if (!packages.isEmpty()) {
+                    writeChunk(packages, assignChunk(packages));
+                    ingestionMetrics.reassigned("bulk-job", packages.size());
+                }
+                job.processedPackages += packages.size();
+                job.chunks++;
+            }
+            job.complete();
+            log.info("Reassignment job {} assigned {} packages in {} chunks", job.jobId, job.processedPackages, job.chunks);
+        } catch (Exception e) {
+            log.error("Reassignment job {} failed after {} packages", job.jobId, job.processedPackages, e);
+            job.fail(e);
+        } finally {
+            jobs.finish(job);
+        }
+    }
+
+    // Driver id per package, in package order
+    private Long[] assignChunk(List<PackagePriority> packages) {
+        DriverLoadView loads = driverLoadRegistry.snapshot();
+        if (loads.size() == 0) {
+            throw new IllegalStateException("No drivers to assign packages to");
+        }
+        AssignmentStrategy strategy = assignmentEngine.getStrategy();
+        int slices = Math.max(1, Math.min(computePool.getParallelism(), packages.size() / 64));
+        int sliceSize = (packages.size() + slices - 1) / slices;
+
+        // toList() keeps slice order, so the merge does not depend on which thread finished first
+        List<int[]> sliceChoices = computePool.submit(() -> IntStream.range(0, slices).parallel()
+            .mapToObj(slice -> strategy.assignAll(capacityShare(loads, slice, slices),
+                packages.subList(slice * sliceSize, Math.min(packages.size(), (slice + 1) * sliceSize))))
+            .toList()).join();
+
+        Long[] driverIds = new Long[packages.size()];
+        int p = 0;
+        for (int[] choices : sliceChoices) {
+            for (int choice : choices) {
+                driverIds[p++] = loads.driverId(choice);
+            }
+        }
+        return driverIds;
+    }
+
+    // Writes the packages that are still unassigned, then adds only those to the loads
+    private void writeChunk(List<PackagePriority> packages, Long[] driverIds) {
+        DriverLoadView loads = driverLoadRegistry.snapshot();
+        Map<Long, String> names = new HashMap<>();
+        for (int i = 0; i < loads.size(); i++) {
+            names.put(loads.driverId(i), loads.driverName(i));
+        }
+        String assignedAt = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+
+        List<Object[]> assignmentInserts = new ArrayList<>(packages.size());
+        List<Long> packageIds = new ArrayList<>(packages.size());
+        for (int i = 0; i < packages.size(); i++) {
+            PackagePriority pkg = packages.get(i);
+            assignmentInserts.add(new Object[]{driverIds[i], pkg.getId(), pkg.getPackageId(), assignedAt});
+            packageIds.add(pkg.getId());
+        }
+        // Assignment rows are written before package rows, the same order as an ingestion's
+        // flush, so the two wait on each other's unique key instead of deadlocking; whichever
+        // commits first keeps the package
+        Map<Long, Integer> deltas = transactionTemplate.execute(status -> {
+            int[] inserted = jdbcTemplate.batchUpdate(INSERT_ASSIGNMENT_SQL, assignmentInserts);
+            List<Object[]> packageUpdates = new ArrayList<>(packages.size());
+            Map<Long, Integer> written = new HashMap<>();
+            for (int i = 0; i < packages.size(); i++) {
+                if (inserted[i] > 0) {
+                    packageUpdates.add(new Object[]{names.get(driverIds[i]), packages.get(i).getId()});
+                    written.merge(driverIds[i], 1, Integer::sum);
+                }
+            }
+            jdbcTemplate.batchUpdate(UPDATE_PACKAGE_SQL, packageUpdates);
+            return written;
+        });
+        entityCache.invalidatePackages(packageIds);
+        driverLoadRegistry.addLoads(deltas);
+        dashboardEvents.driversChanged(deltas.keySet());
+    }
+
+    // The slice's view of the drivers: each driver's remaining capacity is divided evenly
+    // across slices (remainder to the lowest slices), and the shares of the other slices
+    // count as already held, so overflow past capacity is still spread by utilization
+    private static DriverLoadView capacityShare(DriverLoadView loads, int slice, int slices) {
+        return new DriverLoadView() {
+            @Override
+            public int size() {
+                return loads.size();
+            }
+
+            @Override
+            public Long driverId(int position) {
+                return loads.driverId(position);
+            }
+
+            @Override
+            public String driverName(int position) {
+                return loads.driverName(position);
+            }
+
+            @Override
+            public String route(int position) {
+                return loads.route(position);
+            }
+
+            @Override
+            public int held(int position) {
+                int remaining = Math.max(0, loads.capacity(position) - loads.held(position));
+                int share = remaining / slices + (slice < remaining % slices ? 1 : 0);
+                return loads.held(position) + remaining - share;
+            }
+
+            @Override
+            public int capacity(int position) {
+                return loads.capacity(position);
+            }
+
+            @Override
+            public int positionOf(Long driverId) {
+                return loads.positionOf(driverId);
+            }
+        };
+    }
+
+    private static PackagePriority toPackage(PackageSummary summary) {
+        PackagePriority pkg = new PackagePriority();
+        pkg.setId(summary.getId());
+        pkg.setPackageId(summary.getPackageId());
+        pkg.setDeliveryType(summary.getDeliveryType());
+        pkg.setPickupLocation(summary.getPickupLocation());
+        pkg.setEthicalScore(summary.getEthicalScore());
+        return pkg;
+    }
+
+    // Claimed in PREPARING while the caller clears assignments and resets the drivers
+    private static final class JobStatus extends JobTracker.Job {
+        private volatile String strategy;
+        private volatile long totalPackages;
+        private volatile long processedPackages;
+        private volatile int chunks;
+
+        private JobStatus() {
+            super(JobTracker.JobState.PREPARING);
+        }
+
+        @Override
+        void describe(Map<String, Object> result) {
+            result.put("strategy", strategy);
+            result.put("totalPackages", totalPackages);
+            result.put("processedPackages", processedPackages);
+            result.put("chunks", chunks);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.PackagePriority;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+// Worst-fit bin packing over driver capacity with route affinity. Each package goes to
+// the least-utilized driver whose route serves its delivery type and still has room;
+// failing that, to any driver with room; once every driver is full, the overflow is
+// spread by utilization. Bulk assignment keeps one ordered set per route keyword, so
+// each package costs O(log d) and a backlog of n packages O(n log d).
+@Component
+@Slf4j
+public class CapacityAwareAssignmentStrategy implements AssignmentStrategy {
+
+    // Delivery type -> word that marks a driver route serving it
+    private static final Map<String, String> ROUTE_KEYWORDS = Map.of(
+        "MEDICAL_EXPRESS", "medical",
+        "FOOD_EXPRESS", "food",
+        "ESSENTIAL", "essential"
+    );
+    private static final String GENERAL_KEYWORD = "general";
+
+    @Override
+    public String getName() {
+        return "capacity-aware";
+    }
+
+    @Override
+    public int[] assignAll(DriverLoadView drivers, List<PackagePriority> packages) {
+        int size = drivers.size();
+        if (size == 0) {
+            throw new IllegalStateException("No drivers to assign packages to");
+        }
+
+        int[] held = new int[size];
+        int[] capacity = new int[size];
+        for (int i = 0; i < size; i++) {
+            held[i] = drivers.held(i);
+            capacity[i] = drivers.capacity(i);
+        }
+        Comparator<Integer> byUtilization = (a, b) -> compareLoad(
+            held[a], capacity[a], drivers.driverId(a), held[b], capacity[b], drivers.driverId(b));
+
+        // Drivers with room, per route keyword and overall; every driver for overflow
+        Map<String, TreeSet<Integer>> openByKeyword = new HashMap<>();
+        TreeSet<Integer> open = new TreeSet<>(byUtilization);
+        TreeSet<Integer> all = new TreeSet<>(byUtilization);
+        List<List<String>> keywordsOf = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            List<String> keywords = routeKeywords(drivers.route(i));
+            keywordsOf.add(keywords);
+            if (held[i] < capacity[i]) {
+                open.add(i);
+                for (String keyword : keywords) {
+                    openByKeyword.computeIfAbsent(keyword, key -> new TreeSet<>(byUtilization)).add(i);
+                }
+            }
+            all.add(i);
+        }
+
+        int[] choices = new int[packages.size()];
+        int overflow = 0;
+        for (int p = 0; p < choices.length; p++) {
+            TreeSet<Integer> matching = openByKeyword.get(keywordFor(packages.get(p).getDeliveryType()));
+            Integer chosen = matching != null && !matching.isEmpty() ? matching.first() : null;
+            if (chosen == null && !open.isEmpty()) {
+                chosen = open.first();
+            }
+            if (chosen == null) {
+                chosen = all.first();
+                overflow++;
+            }
+
+            // Re-position the driver in every set it belongs to around the increment
+            List<String> keywords = keywordsOf.get(chosen);
+            boolean wasOpen = open.remove(chosen);
+            if (wasOpen) {
+                for (String keyword : keywords) {
+                    openByKeyword.get(keyword).remove(chosen);
+                }
+            }
+            all.remove(chosen);
+            held[chosen]++;
+            all.add(chosen);
+            if (wasOpen && held[chosen] < capacity[chosen]) {
+                open.add(chosen);
+                for (String keyword : keywords) {
+                    openByKeyword.get(keyword).add(chosen);
+                }
+            }
+            choices[p] = chosen;
+        }
+
+        if (overflow > 0) {
+            log.warn("All drivers at capacity: {} of {} packages assigned over capacity", overflow, choices.length);
+        }
+        return choices;
+    }
+
+    @Override
+    public int assignOne(DriverLoadView drivers, PackagePriority pkg) {
+        String keyword = keywordFor(pkg.getDeliveryType());
+        int best = -1;
+        int bestTier = Integer.MAX_VALUE;
+        for (int i = 0; i < drivers.size(); i++) {
+            // 0 = route match with room, 1 = any driver with room, 2 = overflow
+            int tier = drivers.held(i) >= drivers.capacity(i) ? 2 :
+                routeKeywords(drivers.route(i)).contains(keyword) ? 0 : 1;
+            if (best < 0 || tier < bestTier || (tier == bestTier && compareLoad(
+                    drivers.held(i), drivers.capacity(i), drivers.driverId(i),
+                    drivers.held(best), drivers.capacity(best), drivers.driverId(best)) < 0)) {
+                best = i;
+                bestTier = tier;
+            }
+        }
+        return best;
+    }
+
+    static String keywordFor(String deliveryType) {
+        return deliveryType != null ?
+            ROUTE_KEYWORDS.getOrDefault(deliveryType.toUpperCase(Locale.ROOT), GENERAL_KEYWORD) :
+            GENERAL_KEYWORD;
+    }
+
+    static List<String> routeKeywords(String route) {
+        List<String> keywords = new ArrayList<>(2);
+        if (route == null) {
+            return keywords;
+        }
+        String normalized = route.toLowerCase(Locale.ROOT);
+        for (String keyword : ROUTE_KEYWORDS.values()) {
+            if (normalized.contains(keyword)) {
+                keywords.add(keyword);
+            }
+        }
+        if (normalized.contains(GENERAL_KEYWORD)) {
+            keywords.add(GENERAL_KEYWORD);
+        }
+        return keywords;
+    }
+
+    // Lower held/capacity first, then lower driver ID; compared by cross-multiplying
+    private static int compareLoad(int heldA, int capacityA, Long idA, int heldB, int capacityB, Long idB) {
+        int byUtilization = Long.compare((long) heldA * Math.max(capacityB, 1), (long) heldB * Math.max(capacityA, 1));
+        return byUtilization != 0 ? byUtilization : idA.compareTo(idB);
+    }
+}
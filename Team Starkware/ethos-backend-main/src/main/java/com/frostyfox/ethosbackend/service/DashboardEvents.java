@@ -0,0 +1,281 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.PackagePriority;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Server-sent events behind GET /api/dashboard/events. Writers record package and driver
+// changes here. Every ethos.events.flush-interval-ms they are coalesced into one "delta"
+// event: each changed package and driver appears once with its latest values, together
+// with the running package stats. The delta is serialized once and queued to every
+// subscriber. Each subscriber drains its own bounded queue on a virtual thread, so a slow
+// client never blocks writers or other clients. A subscriber whose queue is full is
+// disconnected; it re-syncs from the "snapshot" event sent on reconnect. Nothing is
+// recorded while nobody is subscribed. A flush and a new subscription's snapshot take the
+// same lock, so every subscriber gets its snapshot before any delta built after it.
+@Component
+@Slf4j
+public class DashboardEvents {
+
+    private final DriverLoadRegistry driverLoadRegistry;
+    private final PackageStatsAggregator packageStatsAggregator;
+    private final PriorityIndex priorityIndex;
+    private final JsonMapper jsonMapper;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+    private final long heartbeatNanos;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Map<String, Object>> pendingPackages = new ConcurrentHashMap<>();
+    private final Set<Long> pendingDrivers = ConcurrentHashMap.newKeySet();
+    private final AtomicReference<String> pendingResync = new AtomicReference<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long lastBroadcastNanos = System.nanoTime();
+
+    public DashboardEvents(DriverLoadRegistry driverLoadRegistry,
+                           PackageStatsAggregator packageStatsAggregator,
+                           PriorityIndex priorityIndex,
+                           JsonMapper jsonMapper,
+                           @Value("${ethos.events.subscriber-buffer:32}") int bufferSize,
+                           @Value("${ethos.events.max-subscribers:200}") int maxSubscribers,
+                           @Value("${ethos.events.timeout-ms:1800000}") long timeoutMs,
+                           @Value("${ethos.events.heartbeat-ms:15000}") long heartbeatMs) {
+        this.driverLoadRegistry = driverLoadRegistry;
+        this.packageStatsAggregator = packageStatsAggregator;
+        this.priorityIndex = priorityIndex;
+        this.jsonMapper = jsonMapper;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMs = timeoutMs;
+        this.heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatMs);
+    }
+
+    // Opens a stream that starts with a snapshot; null when max-subscribers are connected
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMs), new ArrayBlockingQueue<>(bufferSize));
+        subscriber.emitter.onCompletion(() -> close(subscriber));
+        subscriber.emitter.onTimeout(() -> close(subscriber));
+        subscriber.emitter.onError(e -> close(subscriber));
+        synchronized (this) {
+            // Registered before the snapshot is built, so no change falls between the two;
+            // no flush runs until the snapshot is queued, so no delta can overtake it
+            subscribers.add(subscriber);
+
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("drivers", driverLoads(null));
+            snapshot.put("stats", stats());
+            subscriber.queue.add(frame("snapshot", snapshot));
+        }
+        subscriber.sender = Thread.ofVirtual().name("dashboard-events").start(subscriber::drain);
+        return subscriber.emitter;
+    }
+
+    // A package was persisted and ranked
+    public void packageRanked(PackagePriority pkg) {
+        if (subscribers.isEmpty() || pkg.getId() == null) {
+            return;
+        }
+        Map<String, Object> change = new LinkedHashMap<>();
+        change.put("id", pkg.getId());
+        change.put("packageId", pkg.getPackageId());
+        change.put("deliveryType", pkg.getDeliveryType());
+        change.put("ethicalScore", pkg.getEthicalScore());
+        change.put("currentPriority", pkg.getCurrentPriority());
+        recordPackage(pkg.getId(), change);
+    }
+
+    public void packageAssigned(PackagePriority pkg, Long driverId) {
+        if (subscribers.isEmpty() || pkg.getId() == null) {
+            return;
+        }
+        Map<String, Object> change = new LinkedHashMap<>();
+        change.put("id", pkg.getId());
+        change.put("packageId", pkg.getPackageId());
+        change.put("assignedDriver", pkg.getAssignedDriver());
+        recordPackage(pkg.getId(), change);
+        pendingDrivers.add(driverId);
+    }
+
+    public void driversChanged(Collection<Long> driverIds) {
+        if (!subscribers.isEmpty()) {
+            pendingDrivers.addAll(driverIds);
+        }
+    }
+
+    // Changes too broad for deltas, e.g. a full reassignment; clients re-fetch what they show
+    public void resync(String reason) {
+        if (!subscribers.isEmpty()) {
+            pendingResync.set(reason);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("droppedSubscribers", dropped.get());
+        stats.put("eventsSent", sequence.get());
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${ethos.events.flush-interval-ms:250}")
+    public synchronized void flush() {
+        if (subscribers.isEmpty()) {
+            pendingPackages.clear();
+            pendingDrivers.clear();
+            pendingResync.set(null);
+            return;
+        }
+
+        String resync = pendingResync.getAndSet(null);
+        List<Map<String, Object>> packages = new ArrayList<>();
+        for (Long id : pendingPackages.keySet()) {
+            Map<String, Object> change = pendingPackages.remove(id);
+            if (change != null) {
+                packages.add(change);
+            }
+        }
+        List<Long> driverIds = new ArrayList<>();
+        for (Long id : pendingDrivers) {
+            if (pendingDrivers.remove(id)) {
+                driverIds.add(id);
+            }
+        }
+
+        if (resync == null && packages.isEmpty() && driverIds.isEmpty()) {
+            if (System.nanoTime() - lastBroadcastNanos >= heartbeatNanos) {
+                broadcast(SseEmitter.event().comment("heartbeat").build());
+            }
+            return;
+        }
+
+        Map<String, Object> delta = new LinkedHashMap<>();
+        if (resync != null) {
+            delta.put("resync", resync);
+        }
+        delta.put("packages", packages);
+        delta.put("drivers", driverLoads(driverIds));
+        delta.put("stats", stats());
+        broadcast(frame("delta", delta));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void recordPackage(Long id, Map<String, Object> change) {
+        change.values().removeIf(value -> value == null);
+        pendingPackages.merge(id, change, (previous, next) -> {
+            Map<String, Object> merged = new LinkedHashMap<>(previous);
+            merged.putAll(next);
+            return merged;
+        });
+    }
+
+    private void broadcast(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        lastBroadcastNanos = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.queue.offer(frame)) {
+                dropped.incrementAndGet();
+                log.warn("Dropping dashboard subscriber: {} events behind", subscriber.queue.size());
+                subscriber.emitter.complete();
+                close(subscriber);
+            }
+        }
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> frame(String name, Map<String, Object> body) {
+        return SseEmitter.event()
+            .id(String.valueOf(sequence.incrementAndGet()))
+            .name(name)
+            .data(jsonMapper.writeValueAsString(body), MediaType.APPLICATION_JSON)
+            .build();
+    }
+
+    // Loads of the given drivers, or of every driver when driverIds is null; same keys as /api/distribution
+    private List<Map<String, Object>> driverLoads(Collection<Long> driverIds) {
+        DriverLoadView loads = driverLoadRegistry.snapshot();
+        List<Map<String, Object>> drivers = new ArrayList<>();
+        for (int i = 0; i < loads.size(); i++) {
+            Long id = loads.driverId(i);
+            if (driverIds != null && !driverIds.contains(id)) {
+                continue;
+            }
+            Map<String, Object> driver = new LinkedHashMap<>();
+            driver.put("id", id);
+            driver.put("driverName", loads.driverName(i));
+            driver.put("assignedPackages", driverLoadRegistry.getAssigned(id));
+            driver.put("currentlyHeld", loads.held(i));
+            driver.put("totalCapacity", loads.capacity(i));
+            drivers.add(driver);
+        }
+        return drivers;
+    }
+
+    // Running counters only; the same figures /api/packages/stats and /api/distribution/stats serve
+    private Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalPackages", packageStatsAggregator.getTotalPackages());
+        stats.put("analyzedPackages", packageStatsAggregator.getAnalyzedPackages());
+        stats.put("rankedPackages", priorityIndex.size());
+        stats.put("priorityDistribution", packageStatsAggregator.getTierDistribution());
+        stats.put("deliveryTypeDistribution", packageStatsAggregator.getDeliveryTypeDistribution());
+        stats.put("averageEthicalScore", packageStatsAggregator.getAverageEthicalScore());
+        return stats;
+    }
+
+    private void close(Subscriber subscriber) {
+        if (subscribers.remove(subscriber) && subscriber.sender != null) {
+            subscriber.sender.interrupt();
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        private volatile Thread sender;
+
+        private Subscriber(SseEmitter emitter, BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        private void drain() {
+            try {
+                while (subscribers.contains(this)) {
+                    emitter.send(queue.take());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                // Client went away; the emitter's error callback has nothing left to do
+                close(this);
+            }
+        }
+    }
+}
@@ -1,16 +1,28 @@
 package com.frostyfox.ethosbackend.service;
 
 import com.frostyfox.ethosbackend.model.Driver;
+import com.frostyfox.ethosbackend.model.DriverAssignment;
+import com.frostyfox.ethosbackend.model.DriverRegistration;
 import com.frostyfox.ethosbackend.model.PackagePriority;
+import com.frostyfox.ethosbackend.model.PackageSummary;
+import com.frostyfox.ethosbackend.repository.DriverAssignmentRepository;
 import com.frostyfox.ethosbackend.repository.DriverRepository;
 import com.frostyfox.ethosbackend.repository.PackagePriorityRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,38 +31,55 @@ import java.util.stream.Collectors;
 public class DistributionService {
     
     private final DriverRepository driverRepository;
+    private final DriverAssignmentRepository driverAssignmentRepository;
+    private final DriverLoadRegistry driverLoadRegistry;
+    private final AssignmentEngine assignmentEngine;
+    private final DriverSpatialIndex driverSpatialIndex;
+    private final Gazetteer gazetteer;
     private final PackagePriorityRepository packagePriorityRepository;
+    private final PriorityIndex priorityIndex;
+    private final PackageStatsAggregator packageStatsAggregator;
+    private final PackagePager packagePager;
+    private final BulkReassignmentJob bulkReassignmentJob;
+    private final IngestionMetrics ingestionMetrics;
+    private final DashboardEvents dashboardEvents;
+    private final EntityCache entityCache;
+    private final TransactionTemplate transactionTemplate;
+    // Ingest assignments share it; a reassignment takes it alone while it clears assignments
+    // and resets the counters, so no assignment straddles the reset
+    private final ReadWriteLock reassignmentLock = new ReentrantReadWriteLock();
     
-    private boolean initialized = false;
+    @Value("${ethos.assignment.reconcile-batch-size:500}")
+    private int reconcileBatchSize;
     
-    public List<Map<String, Object>> getDriverDistribution() {
-        // Check if packages exist in database
-        long packageCount = packagePriorityRepository.count();
-        log.info("Database contains {} packages", packageCount);
-        
-        // Auto-initialize if no drivers exist
-        if (!initialized && driverRepository.count() == 0) {
-            log.info("Auto-initializing drivers and assigning packages...");
-            if (packageCount == 0) {
-                log.warn("No packages found in database. Cannot assign packages to drivers.");
-                // Create empty drivers anyway
-                List<Driver> drivers = createDrivers();
-                driverRepository.saveAll(drivers);
-                initialized = true;
-            } else {
-                initializeDriversAndAssignPackages();
-                initialized = true;
+    @Value("${ethos.assignment.reconcile-grace-ms:30000}")
+    private long reconcileGraceMs;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillAssignments() {
+        try {
+            int linked = driverAssignmentRepository.linkPackageRows();
+            if (linked > 0) {
+                log.info("Linked {} driver assignments to their package rows", linked);
+            }
+            int backfilled = driverAssignmentRepository.backfillFromPackages();
+            if (backfilled > 0) {
+                log.info("Backfilled {} driver assignments from package rows", backfilled);
             }
+        } catch (Exception e) {
+            log.error("Error backfilling driver assignments", e);
         }
-        
-        // Check for unassigned packages and assign them
-        assignUnassignedPackages();
-        
+    }
+    
+    // Pure read of driver state; assignment is owned by reconcileAssignments()
+    public List<Map<String, Object>> getDriverDistribution() {
         List<Driver> drivers = driverRepository.findAll();
         
         return drivers.stream()
+            .map(driverLoadRegistry::applyTo)
             .map(driver -> {
                 Map<String, Object> driverInfo = new HashMap<>();
+                driverInfo.put("id", driver.getId());
                 driverInfo.put("driverName", driver.getDriverName());
                 driverInfo.put("assignedPackages", driver.getAssignedPackages());
                 driverInfo.put("currentlyHeld", driver.getCurrentlyHeld());
@@ -60,21 +89,111 @@ public class DistributionService {
             .collect(Collectors.toList());
     }
     
-    public Map<String, Integer> getDistributionStats() {
-        List<PackagePriority> allPackages = packagePriorityRepository.findAll();
+    public Map<String, Object> registerDriver(DriverRegistration registration) {
+        if (registration.getDriverName() == null || registration.getDriverName().isBlank()) {
+            return errorResult("driverName is required");
+        }
+        if (registration.getTotalCapacity() == null || registration.getTotalCapacity() <= 0) {
+            return errorResult("totalCapacity must be positive");
+        }
+        Gazetteer.Coordinates position = resolvePosition(registration);
+        if (position == null && hasPosition(registration)) {
+            return errorResult("Unknown location '" + registration.getLocation() + "'");
+        }
         
-        int totalReceived = allPackages.size();
-        int assigned = (int) allPackages.stream().filter(pkg -> 
-            pkg.getPythonResponse() != null && !pkg.getPythonResponse().isEmpty()
-        ).count();
+        try {
+            Driver driver = new Driver();
+            driver.setDriverName(registration.getDriverName().trim());
+            driver.setRoute(registration.getRoute());
+            driver.setTotalCapacity(registration.getTotalCapacity());
+            driver.setAssignedPackages(0);
+            driver.setCurrentlyHeld(0);
+            driver.setLatitude(position != null ? position.latitude() : null);
+            driver.setLongitude(position != null ? position.longitude() : null);
+            driver.setStatus("ACTIVE");
+            driver.setCreatedAt(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            driver = driverRepository.save(driver);
+            
+            driverLoadRegistry.add(driver);
+            driverSpatialIndex.update(driver);
+            dashboardEvents.driversChanged(List.of(driver.getId()));
+            log.info("Registered driver {} ({}) with capacity {}", driver.getId(), driver.getDriverName(), 
+                driver.getTotalCapacity());
+            return driverResult(driver);
+            
+        } catch (Exception e) {
+            log.error("Error registering driver", e);
+            return errorResult("Error: " + e.getMessage());
+        }
+    }
+    
+    // Returns null when the driver does not exist
+    public Map<String, Object> updateDriverPosition(Long driverId, DriverRegistration update) {
+        Driver driver = entityCache.getDriver(driverId);
+        if (driver == null) {
+            return null;
+        }
+        Gazetteer.Coordinates position = resolvePosition(update);
+        if (position == null) {
+            return errorResult(update.getLocation() != null ?
+                "Unknown location '" + update.getLocation() + "'" : "latitude and longitude or location are required");
+        }
         
-        int ready = (int) allPackages.stream().filter(pkg -> 
-            pkg.getCurrentPriority() <= 3
-        ).count();
+        try {
+            driver.setLatitude(position.latitude());
+            driver.setLongitude(position.longitude());
+            driverRepository.updatePosition(driverId, position.latitude(), position.longitude());
+            driverSpatialIndex.update(driver);
+            return driverResult(driverLoadRegistry.applyTo(driver));
+            
+        } catch (Exception e) {
+            log.error("Error updating position of driver {}", driverId, e);
+            return errorResult("Error: " + e.getMessage());
+        } finally {
+            entityCache.invalidateDriver(driverId);
+        }
+    }
+    
+    private Gazetteer.Coordinates resolvePosition(DriverRegistration registration) {
+        if (registration.getLatitude() != null && registration.getLongitude() != null) {
+            return new Gazetteer.Coordinates(registration.getLatitude(), registration.getLongitude());
+        }
+        return gazetteer.resolve(registration.getLocation());
+    }
+    
+    private static boolean hasPosition(DriverRegistration registration) {
+        return registration.getLocation() != null && !registration.getLocation().isBlank();
+    }
+    
+    private static Map<String, Object> driverResult(Driver driver) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("id", driver.getId());
+        result.put("driverName", driver.getDriverName());
+        result.put("route", driver.getRoute());
+        result.put("totalCapacity", driver.getTotalCapacity());
+        result.put("assignedPackages", driver.getAssignedPackages());
+        result.put("currentlyHeld", driver.getCurrentlyHeld());
+        result.put("latitude", driver.getLatitude());
+        result.put("longitude", driver.getLongitude());
+        result.put("status", driver.getStatus());
+        return result;
+    }
+    
+    private static Map<String, Object> errorResult(String message) {
+        Map<String, Object> errorResult = new HashMap<>();
+        errorResult.put("message", message);
+        errorResult.put("error", true);
+        return errorResult;
+    }
+    
+    public Map<String, Integer> getDistributionStats() {
+        int totalReceived = (int) packageStatsAggregator.getTotalPackages();
+        int assigned = (int) packageStatsAggregator.getAnalyzedPackages();
         
-        int critical = (int) allPackages.stream().filter(pkg -> 
-            pkg.getCurrentPriority() == 1
-        ).count();
+        // Priorities are dense ranks, so "priority <= 3" is simply the top three packages
+        int ranked = priorityIndex.size();
+        int ready = Math.min(ranked, 3);
+        int critical = Math.min(ranked, 1);
         
         return Map.of(
             "totalReceived", totalReceived,
@@ -85,27 +204,26 @@ public class DistributionService {
     }
     
     public List<Map<String, Object>> getPackagesByStatus(String status) {
-        List<PackagePriority> allPackages = packagePriorityRepository.findAll();
-        List<PackagePriority> filteredPackages = new ArrayList<>();
+        List<PackageSummary> filteredPackages;
         
-        switch (status.toLowerCase()) {
+        // Priorities are dense ranks in (ethicalScore DESC, id ASC) order, so the priority
+        // thresholds become LIMITs on that index instead of a scan of current_priority
+        switch (status.toLowerCase(Locale.ROOT)) {
             case "assigned":
-                filteredPackages = allPackages.stream()
-                    .filter(pkg -> pkg.getPythonResponse() != null && !pkg.getPythonResponse().isEmpty())
-                    .collect(Collectors.toList());
+                filteredPackages = packagePriorityRepository.findAnalyzedSummariesAfter(
+                    Double.MAX_VALUE, 0L, Limit.unlimited());
                 break;
             case "ready":
-                filteredPackages = allPackages.stream()
-                    .filter(pkg -> pkg.getCurrentPriority() <= 3)
-                    .collect(Collectors.toList());
+                filteredPackages = packagePriorityRepository.findSummariesAfter(
+                    Double.MAX_VALUE, 0L, Limit.of(3));
                 break;
             case "critical":
-                filteredPackages = allPackages.stream()
-                    .filter(pkg -> pkg.getCurrentPriority() == 1)
-                    .collect(Collectors.toList());
+                filteredPackages = packagePriorityRepository.findSummariesAfter(
+                    Double.MAX_VALUE, 0L, Limit.of(1));
                 break;
             case "received":
-                filteredPackages = allPackages; // All packages
+                filteredPackages = packagePriorityRepository.findSummariesAfter(
+                    Double.MAX_VALUE, 0L, Limit.unlimited()); // All packages
                 break;
             default:
                 filteredPackages = new ArrayList<>();
@@ -123,26 +241,71 @@ public class DistributionService {
             .collect(Collectors.toList());
     }
     
-    public String initializeDriversAndAssignPackages() {
+    public Map<String, Object> getPackagesByStatusPage(String status, String cursor, Integer limit, String fields) {
+        switch (status.toLowerCase(Locale.ROOT)) {
+            case "assigned":
+                return packagePager.page(cursor, limit, fields, packagePriorityRepository::findAnalyzedSummariesAfter);
+            case "ready":
+                return packagePager.page(cursor, limit, fields, topPriorities(3));
+            case "critical":
+                return packagePager.page(cursor, limit, fields, topPriorities(1));
+            case "received":
+                return packagePager.page(cursor, limit, fields, packagePriorityRepository::findSummariesAfter);
+            default:
+                return packagePager.page(cursor, limit, fields, (score, id, pageLimit) -> new ArrayList<>());
+        }
+    }
+    
+    // Priorities are dense ranks in keyset order, so "priority <= n" is the first n rows
+    private PackagePager.KeysetQuery topPriorities(int maxPriority) {
+        return (score, id, pageLimit) -> {
+            Integer cursorPriority = id == 0L ? Integer.valueOf(0) : priorityIndex.priorityOf(id);
+            int remaining = cursorPriority != null ? maxPriority - cursorPriority : 0;
+            if (remaining <= 0) {
+                return new ArrayList<>();
+            }
+            return packagePriorityRepository.findSummariesAfter(score, id,
+                Limit.of(Math.min(pageLimit.max(), remaining)));
+        };
+    }
+    
+    // Returns the driver's assignments oldest first, or null when the driver does not exist
+    public List<Map<String, Object>> getDriverPackages(Long driverId) {
+        if (entityCache.getDriver(driverId) == null) {
+            return null;
+        }
+        
+        return driverAssignmentRepository.findAssignmentsByDriverId(driverId).stream()
+            .map(assignment -> {
+                Map<String, Object> packageInfo = new HashMap<>();
+                packageInfo.put("id", assignment.getId());
+                packageInfo.put("packageId", assignment.getPackageId());
+                packageInfo.put("state", assignment.getState());
+                packageInfo.put("assignedAt", assignment.getAssignedAt());
+                packageInfo.put("deliveryType", assignment.getDeliveryType());
+                packageInfo.put("pickupLocation", assignment.getPickupLocation());
+                packageInfo.put("destination", assignment.getDestination());
+                packageInfo.put("ethicalScore", assignment.getEthicalScore());
+                return packageInfo;
+            })
+            .collect(Collectors.toList());
+    }
+    
+    public synchronized String initializeDriversAndAssignPackages() {
         try {
             // Check if drivers already exist
             if (driverRepository.count() > 0) {
                 return "Drivers already initialized. Use force=true to reinitialize.";
             }
             
-            // Create 3 drivers
-            List<Driver> drivers = createDrivers();
-            
-            // Get all packages and assign to drivers
-            List<PackagePriority> allPackages = packagePriorityRepository.findAllOrderByEthicalScoreDesc();
-            log.info("Found {} packages to assign to drivers", allPackages.size());
-            assignPackagesToDrivers(drivers, allPackages);
-            
-            // Save drivers
-            driverRepository.saveAll(drivers);
-            
-            log.info("Initialized {} drivers and assigned {} packages", drivers.size(), allPackages.size());
-            return "Successfully initialized 3 drivers and assigned packages";
+            Map<String, Object> job = startReassignment(false);
+            if (job == null) {
+                return "A reassignment job is already running";
+            }
+            int drivers = driverLoadRegistry.snapshot().size();
+            log.info("Initialized {} drivers, reassignment job {} started for {} packages", 
+                drivers, job.get("jobId"), job.get("totalPackages"));
+            return "Successfully initialized " + drivers + " drivers, assigning packages in job " + job.get("jobId");
             
         } catch (Exception e) {
             log.error("Error initializing drivers", e);
@@ -150,125 +313,194 @@ public class DistributionService {
         }
     }
     
+    // Returns null when a reassignment job is already running
     public Map<String, Object> forceReinitializeDriversAndAssignPackages() {
         try {
-            // Delete all existing drivers
-            driverRepository.deleteAll();
-            log.info("Deleted all existing drivers");
-            
-            // Reset initialization flag
-            initialized = false;
-            
-            // Get all packages
-            List<PackagePriority> allPackages = packagePriorityRepository.findAllOrderByEthicalScoreDesc();
-            log.info("Found {} packages in database", allPackages.size());
-            
-            // Create and assign drivers
-            List<Driver> drivers = createDrivers();
-            assignPackagesToDrivers(drivers, allPackages);
-            driverRepository.saveAll(drivers);
-            
-            // Return detailed results
-            List<Map<String, Object>> driverResults = drivers.stream()
-                .map(driver -> {
-                    Map<String, Object> driverMap = new HashMap<>();
-                    driverMap.put("driverName", driver.getDriverName());
-                    driverMap.put("assignedPackages", driver.getAssignedPackages());
-                    driverMap.put("currentlyHeld", driver.getCurrentlyHeld());
-                    driverMap.put("totalCapacity", driver.getTotalCapacity());
-                    return driverMap;
-                })
-                .collect(Collectors.toList());
-            
-            Map<String, Object> result = new HashMap<>();
-            result.put("message", "Force reinitialized drivers and assigned packages");
-            result.put("totalPackages", allPackages.size());
-            result.put("drivers", driverResults);
+            Map<String, Object> job = startReassignment(true);
+            if (job == null) {
+                return null;
+            }
             
+            Map<String, Object> result = new HashMap<>(job);
+            result.put("message", "Force reinitialize started; packages are reassigned in the background");
             return result;
             
         } catch (Exception e) {
             log.error("Error force reinitializing drivers", e);
-            Map<String, Object> errorResult = new HashMap<>();
-            errorResult.put("message", "Error: " + e.getMessage());
-            errorResult.put("error", true);
-            return errorResult;
+            return errorResult("Error: " + e.getMessage());
         }
     }
     
-    private void assignUnassignedPackages() {
+    public Map<String, Object> getReassignmentJob(String jobId) {
+        return bulkReassignmentJob.getStatus(jobId);
+    }
+    
+    // Clears assignments, resets the fleet's counters and hands the package table to the
+    // bulk reassignment job. Ingest assignments wait while assignments are cleared and the
+    // counters reset, so every package is then either unassigned or counted once. The job
+    // only takes packages up to the highest id it sees now that are still unassigned when
+    // it reaches them; the rest are assigned by their own ingestion. Should the job stop
+    // early, the packages it did not reach stay unassigned for the reconciler.
+    private synchronized Map<String, Object> startReassignment(boolean rerank) {
+        Map<String, Object> claimed = bulkReassignmentJob.claim();
+        if (claimed == null) {
+            return null;
+        }
+        String jobId = (String) claimed.get("jobId");
+        
         try {
-            // Find all packages with no assigned driver OR with JSON array format
-            List<PackagePriority> unassignedPackages = packagePriorityRepository.findAll().stream()
-                .filter(pkg -> pkg.getAssignedDriver() == null || 
-                           pkg.getAssignedDriver().isEmpty() || 
-                           pkg.getAssignedDriver().startsWith("[") ||
-                           pkg.getAssignedDriver().contains("PKG-"))
-                .collect(Collectors.toList());
+            if (rerank) {
+                // Bring persisted priorities in line with ethical scores before assigning
+                int reranked = packagePriorityRepository.rerankByEthicalScore();
+                entityCache.invalidateAllPackages();
+                log.info("Re-ranked {} package priorities", reranked);
+            }
             
-            if (!unassignedPackages.isEmpty()) {
-                log.info("Found {} unassigned packages, assigning them now...", unassignedPackages.size());
-                
-                // Ensure drivers exist
-                if (driverRepository.count() == 0) {
-                    List<Driver> drivers = createDrivers();
-                    driverRepository.saveAll(drivers);
-                }
-                
-                // Clear existing incorrect assignments and reassign
-                for (PackagePriority pkg : unassignedPackages) {
-                    // Clear incorrect assignedDriver value
-                    pkg.setAssignedDriver(null);
-                    packagePriorityRepository.save(pkg);
-                    
-                    // Assign to driver properly
-                    assignNewPackageToDriver(pkg);
-                }
+            // Reassign across the registered fleet, creating the default drivers if there is none
+            List<Driver> drivers = driverRepository.findAll();
+            if (drivers.isEmpty()) {
+                drivers = createDrivers();
+            }
+            drivers.forEach(driver -> {
+                driver.setAssignedPackages(0);
+                driver.setCurrentlyHeld(0);
+            });
+            
+            Long maxPackageId;
+            reassignmentLock.writeLock().lock();
+            try {
+                // Delete all existing assignments and unassign every package; registered drivers are kept
+                int unassigned = transactionTemplate.execute(status -> {
+                    driverAssignmentRepository.deleteAllInBatch();
+                    return packagePriorityRepository.clearAssignedDrivers();
+                });
+                entityCache.invalidateAllPackages();
+                log.info("Deleted all existing driver assignments, unassigned {} packages", unassigned);
                 
-                log.info("Successfully assigned {} unassigned packages to drivers", unassignedPackages.size());
+                driverLoadRegistry.reload(driverRepository.saveAll(drivers));
+                entityCache.invalidateAllDrivers();
+                maxPackageId = packagePriorityRepository.findMaxId();
+            } finally {
+                reassignmentLock.writeLock().unlock();
             }
+            
+            dashboardEvents.resync("reassignment");
+            long totalPackages = packagePriorityRepository.count();
+            log.info("Found {} packages in database", totalPackages);
+            return bulkReassignmentJob.start(jobId, maxPackageId, totalPackages);
+            
         } catch (Exception e) {
-            log.error("Error assigning unassigned packages", e);
+            bulkReassignmentJob.abandon(jobId, e);
+            throw e;
         }
     }
     
-    public void assignNewPackageToDriver(PackagePriority newPackage) {
+    // Background owner of assignment for packages the ingest path did not place: creates
+    // and fills the default drivers on first run, then assigns stragglers in batches.
+    // Packages younger than the grace period are left to their in-flight ingestion.
+    @Scheduled(initialDelayString = "${ethos.assignment.reconcile-interval-ms:5000}",
+               fixedDelayString = "${ethos.assignment.reconcile-interval-ms:5000}")
+    public void reconcileAssignments() {
         try {
-            // Ensure drivers exist
+            // A running reassignment job owns every package below its cut-off
+            if (bulkReassignmentJob.isRunning()) {
+                return;
+            }
             if (driverRepository.count() == 0) {
-                log.info("No drivers exist, creating drivers first...");
-                List<Driver> drivers = createDrivers();
-                driverRepository.saveAll(drivers);
+                log.info("Auto-initializing drivers and assigning packages...");
+                log.info(initializeDriversAndAssignPackages());
+                return;
             }
             
-            // Get driver with least packages (round-robin based on current count)
-            Driver driver = driverRepository.findAllByOrderByAssignedPackagesAsc().stream()
-                .findFirst()
-                .orElse(driverRepository.findAll().get(0));
+            ingestionMetrics.unassignedBacklog(packagePriorityRepository.countUnassignedPackages());
             
-            // Update package with driver assignment
-            newPackage.setAssignedDriver(driver.getDriverName());
-            packagePriorityRepository.save(newPackage);
+            String cutoff = LocalDateTime.now().minusNanos(reconcileGraceMs * 1_000_000L)
+                .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            List<PackagePriority> unassignedPackages = packagePriorityRepository.findUnassignedPackages(
+                cutoff, Limit.of(reconcileBatchSize));
+            if (unassignedPackages.isEmpty()) {
+                return;
+            }
             
-            // Update driver assignment
-            driver.setAssignedPackages(driver.getAssignedPackages() + 1);
-            driver.setCurrentlyHeld(driver.getCurrentlyHeld() + 1);
+            log.info("Found {} unassigned packages, assigning them now...", unassignedPackages.size());
+            for (PackagePriority pkg : unassignedPackages) {
+                assignNewPackageToDriver(pkg);
+            }
+            ingestionMetrics.reassigned("reconciler", unassignedPackages.size());
+            log.info("Successfully assigned {} unassigned packages to drivers", unassignedPackages.size());
             
-            // Add package to assigned list
-            List<String> assignedPkgIds = parseAssignedPackageIds(driver.getAssignedPackageIds());
-            assignedPkgIds.add(newPackage.getPackageId());
-            driver.setAssignedPackageIds(assignedPkgIds.toString());
+        } catch (Exception e) {
+            log.error("Error reconciling package assignments", e);
+        }
+    }
+    
+    public void assignNewPackageToDriver(PackagePriority newPackage) {
+        ingestionMetrics.time(IngestionMetrics.ASSIGN, () -> reserveDriver(newPackage));
+    }
+    
+    private void reserveDriver(PackagePriority newPackage) {
+        try {
+            // Ensure drivers exist
+            ensureDrivers();
             
-            driverRepository.save(driver);
+            // Atomically take a slot on the driver the assignment strategy picks; the
+            // drivers table is brought up to date by the registry's reconcile
+            AssignmentStrategy strategy = assignmentEngine.getStrategy();
+            DriverLoadRegistry.Reservation reservation;
+            reassignmentLock.readLock().lock();
+            try {
+                reservation = driverLoadRegistry.reserve(drivers -> strategy.assignOne(drivers, newPackage));
+                if (reservation == null) {
+                    log.warn("No drivers available for package {}", newPackage.getPackageId());
+                    return;
+                }
+                
+                try {
+                    // The package's driver and its assignment row commit together; a package that
+                    // is already assigned fails the unique key and keeps its existing driver
+                    newPackage.setAssignedDriver(reservation.driverName());
+                    transactionTemplate.executeWithoutResult(status -> {
+                        packagePriorityRepository.save(newPackage);
+                        driverAssignmentRepository.save(newAssignment(reservation.driverId(), newPackage));
+                    });
+                } catch (Exception e) {
+                    driverLoadRegistry.release(reservation.driverId());
+                    throw e;
+                } finally {
+                    entityCache.invalidatePackage(newPackage.getId());
+                }
+            } finally {
+                reassignmentLock.readLock().unlock();
+            }
+            dashboardEvents.packageAssigned(newPackage, reservation.driverId());
             
             log.info("Assigned package {} to driver {} (total: {})", 
-                newPackage.getPackageId(), driver.getDriverName(), driver.getAssignedPackages());
+                newPackage.getPackageId(), reservation.driverName(), 
+                driverLoadRegistry.getAssigned(reservation.driverId()));
                 
         } catch (Exception e) {
             log.error("Error assigning new package to driver", e);
         }
     }
     
+    // Creates the default drivers on first use; the lock is only taken while the registry
+    // is empty, and shared with initialization so the fleet is created once
+    private void ensureDrivers() {
+        if (!driverLoadRegistry.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            if (!driverLoadRegistry.isEmpty()) {
+                return;
+            }
+            if (driverRepository.count() == 0) {
+                log.info("No drivers exist, creating drivers first...");
+                driverRepository.saveAll(createDrivers());
+            }
+            driverLoadRegistry.reload(driverRepository.findAll());
+        }
+    }
+    
     private List<Driver> createDrivers() {
         List<Driver> drivers = new ArrayList<>();
         
@@ -279,7 +511,6 @@ public class DistributionService {
         driver1.setAssignedPackages(0);
         driver1.setCurrentlyHeld(0);
         driver1.setTotalCapacity(5);
-        driver1.setAssignedPackageIds("[]");
         driver1.setStatus("ACTIVE");
         driver1.setCreatedAt(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
         drivers.add(driver1);
@@ -291,7 +522,6 @@ public class DistributionService {
         driver2.setAssignedPackages(0);
         driver2.setCurrentlyHeld(0);
         driver2.setTotalCapacity(5);
-        driver2.setAssignedPackageIds("[]");
         driver2.setStatus("ACTIVE");
         driver2.setCreatedAt(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
         drivers.add(driver2);
@@ -303,7 +533,6 @@ public class DistributionService {
         driver3.setAssignedPackages(0);
         driver3.setCurrentlyHeld(0);
         driver3.setTotalCapacity(5);
-        driver3.setAssignedPackageIds("[]");
         driver3.setStatus("ACTIVE");
         driver3.setCreatedAt(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
         drivers.add(driver3);
@@ -311,60 +540,13 @@ public class DistributionService {
         return drivers;
     }
     
-    private void assignPackagesToDrivers(List<Driver> drivers, List<PackagePriority> packages) {
-        // Initialize package counts for all drivers
-        drivers.forEach(driver -> {
-            driver.setAssignedPackages(0);
-            driver.setCurrentlyHeld(0);
-        });
-        
-        // Round-robin assignment based on priority
-        for (int i = 0; i < packages.size(); i++) {
-            PackagePriority pkg = packages.get(i);
-            Driver driver = drivers.get(i % 3); // Rotate among 3 drivers
-            
-            // Update package with driver assignment
-            pkg.setAssignedDriver(driver.getDriverName());
-            
-            // Update assigned packages count
-            driver.setAssignedPackages(driver.getAssignedPackages() + 1);
-            
-            // Update currently held (for now, same as assigned - can be updated later for real-time tracking)
-            driver.setCurrentlyHeld(driver.getAssignedPackages());
-            
-            // Add package to assigned packages list
-            try {
-                List<String> assignedPkgIds = parseAssignedPackageIds(driver.getAssignedPackageIds());
-                assignedPkgIds.add(pkg.getPackageId());
-                driver.setAssignedPackageIds(assignedPkgIds.toString());
-            } catch (Exception e) {
-                log.error("Error updating assigned packages for driver {}", driver.getDriverName(), e);
-            }
-        }
-        
-        // Save all updated packages with driver assignments
-        packagePriorityRepository.saveAll(packages);
-        
-        // Log final assignment
-        drivers.forEach(driver -> {
-            log.info("Driver {}: {} assigned, {} currently held, capacity {}", 
-                driver.getDriverName(), driver.getAssignedPackages(), 
-                driver.getCurrentlyHeld(), driver.getTotalCapacity());
-        });
-    }
-    
-    private List<String> parseAssignedPackageIds(String assignedPackageIds) {
-        try {
-            // Parse JSON array string to list
-            if (assignedPackageIds == null || assignedPackageIds.equals("[]")) {
-                return new ArrayList<>();
-            }
-            return Arrays.asList(assignedPackageIds.replaceAll("[\\[\\]]", "").split(",\\s*"))
-                         .stream()
-                         .filter(s -> !s.isEmpty())
-                         .collect(Collectors.toList());
-        } catch (Exception e) {
-            return new ArrayList<>();
-        }
+    private DriverAssignment newAssignment(Long driverId, PackagePriority pkg) {
+        DriverAssignment assignment = new DriverAssignment();
+        assignment.setDriverId(driverId);
+        assignment.setPackagePriorityId(pkg.getId());
+        assignment.setPackageId(pkg.getPackageId());
+        assignment.setAssignedAt(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        assignment.setState("ASSIGNED");
+        return assignment;
     }
 }
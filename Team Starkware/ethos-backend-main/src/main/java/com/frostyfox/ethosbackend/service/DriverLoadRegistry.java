@@ -0,0 +1,368 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.Driver;
+import com.frostyfox.ethosbackend.repository.DriverRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToIntFunction;
+
+// In-memory driver loads behind least-loaded assignment. Each driver's counters are
+// atomics, so a reservation costs the chooser plus a few atomic increments instead of a
+// copy of the fleet's counters. A reservation commits only if no other one committed
+// since its chooser started reading, so concurrent ingests never both see the same free
+// slot and no increment is lost, without holding a lock. The fleet itself (ids, names,
+// routes, capacities) is swapped as a whole on reload and copied only when a driver
+// registers. Counters are written back to the drivers table by a scheduled reconcile
+// instead of on every assignment. Whenever a driver fills up or gets room again the
+// spatial index is told, so nearest-driver lookups skip full drivers' cells.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DriverLoadRegistry {
+
+    private final DriverRepository driverRepository;
+    private final DriverSpatialIndex driverSpatialIndex;
+
+    private final AtomicReference<Fleet> fleet = new AtomicReference<>(Fleet.EMPTY);
+    // Reservations that claimed / finished their commit; equal when none is in progress
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong committed = new AtomicLong();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFromDatabase() {
+        try {
+            reload(driverRepository.findAll());
+            log.info("Driver load registry loaded: {} drivers", fleet.get().size());
+        } catch (Exception e) {
+            log.error("Error loading driver load registry", e);
+        }
+    }
+
+    // Replaces every tracked driver, e.g. after drivers are (re)created and bulk-assigned
+    public void reload(Collection<Driver> drivers) {
+        Fleet reloaded = Fleet.of(drivers);
+        fleet.set(reloaded);
+        dirty.clear();
+        for (Slot slot : reloaded.slots) {
+            refreshCapacity(slot);
+        }
+    }
+
+    // Starts tracking a newly registered driver without disturbing in-flight reservations
+    public void add(Driver driver) {
+        while (true) {
+            Fleet current = fleet.get();
+            if (current.positions.containsKey(driver.getId())) {
+                return;
+            }
+            Fleet next = current.with(driver);
+            if (fleet.compareAndSet(current, next)) {
+                refreshCapacity(next.slots[next.slots.length - 1]);
+                return;
+            }
+        }
+    }
+
+    // Copy of the current loads, e.g. for a bulk assignment or the dashboard; the view
+    // never changes once returned
+    public DriverLoadView snapshot() {
+        return fleet.get().freeze();
+    }
+
+    // Adds a batch of assignments made outside reserve(), e.g. by a bulk reassignment chunk
+    public void addLoads(Map<Long, Integer> deltas) {
+        Fleet current = fleet.get();
+        for (Map.Entry<Long, Integer> delta : deltas.entrySet()) {
+            Integer position = current.positions.get(delta.getKey());
+            if (position != null) {
+                Slot slot = current.slots[position];
+                slot.assigned.addAndGet(delta.getValue());
+                int held = slot.held.addAndGet(delta.getValue());
+                dirty.add(delta.getKey());
+                if ((held >= slot.capacity) != (held - delta.getValue() >= slot.capacity)) {
+                    refreshCapacity(slot);
+                }
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return fleet.get().size() == 0;
+    }
+
+    // Atomically takes one slot on the least-loaded driver, or returns null with no drivers
+    public Reservation reserve() {
+        return reserve(Fleet::leastLoaded);
+    }
+
+    // Atomically takes one slot on the driver the chooser picks from the live loads;
+    // the chooser may run more than once if another reservation lands first
+    public Reservation reserve(ToIntFunction<DriverLoadView> chooser) {
+        while (true) {
+            Fleet current = fleet.get();
+            if (current.size() == 0) {
+                return null;
+            }
+            long version = committed.get();
+            if (claimed.get() != version) {
+                // Another reservation is mid-commit; its counters are not settled yet
+                Thread.onSpinWait();
+                continue;
+            }
+            int chosen = chooser.applyAsInt(current);
+            // Fails if another reservation committed while the chooser was reading
+            if (!claimed.compareAndSet(version, version + 1)) {
+                continue;
+            }
+            Slot slot = current.slots[chosen];
+            int held;
+            try {
+                held = slot.held.incrementAndGet();
+                slot.assigned.incrementAndGet();
+            } finally {
+                committed.incrementAndGet();
+            }
+            if (fleet.get() != current) {
+                // Reloaded meanwhile: the slot belongs to a discarded fleet, choose again
+                continue;
+            }
+            dirty.add(slot.id);
+            if (held == slot.capacity) {
+                refreshCapacity(slot);
+            }
+            return new Reservation(slot.id, slot.name);
+        }
+    }
+
+    // Gives back a slot taken by reserve(), e.g. when the assignment could not be stored
+    public void release(Long driverId) {
+        Fleet current = fleet.get();
+        Integer position = current.positions.get(driverId);
+        if (position == null) {
+            return;
+        }
+        Slot slot = current.slots[position];
+        if (slot.assigned.getAndUpdate(count -> count > 0 ? count - 1 : count) > 0) {
+            if (slot.held.decrementAndGet() == slot.capacity - 1) {
+                refreshCapacity(slot);
+            }
+            dirty.add(driverId);
+        }
+    }
+
+    public Integer getAssigned(Long driverId) {
+        Slot slot = fleet.get().slot(driverId);
+        return slot != null ? slot.assigned.get() : null;
+    }
+
+    public Integer getHeld(Long driverId) {
+        Slot slot = fleet.get().slot(driverId);
+        return slot != null ? slot.held.get() : null;
+    }
+
+    // Overlays the live counters on a driver read from the table, which may lag behind
+    public Driver applyTo(Driver driver) {
+        Slot slot = fleet.get().slot(driver.getId());
+        if (slot != null) {
+            driver.setAssignedPackages(slot.assigned.get());
+            driver.setCurrentlyHeld(slot.held.get());
+        }
+        return driver;
+    }
+
+    private void refreshCapacity(Slot slot) {
+        driverSpatialIndex.refreshCapacity(slot.id, () -> slot.held.get() >= slot.capacity);
+    }
+
+    @Scheduled(fixedDelayString = "${ethos.driver-load.reconcile-interval-ms:1000}")
+    public void reconcile() {
+        for (Long driverId : dirty) {
+            dirty.remove(driverId);
+            Slot slot = fleet.get().slot(driverId);
+            if (slot == null) {
+                continue;
+            }
+            try {
+                driverRepository.updateLoad(driverId, slot.assigned.get(), slot.held.get());
+            } catch (Exception e) {
+                dirty.add(driverId);
+                log.error("Error reconciling load for driver {}", driverId, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    void flush() {
+        reconcile();
+    }
+
+    public record Reservation(Long driverId, String driverName) {
+    }
+
+    // One driver's fixed details and live counters; shared by every fleet it belongs to
+    private static final class Slot {
+        private final Long id;
+        private final String name;
+        private final String route;
+        private final int capacity;
+        private final AtomicInteger assigned;
+        private final AtomicInteger held;
+
+        private Slot(Driver driver) {
+            this.id = driver.getId();
+            this.name = driver.getDriverName();
+            this.route = driver.getRoute();
+            this.capacity = driver.getTotalCapacity() != null ? driver.getTotalCapacity() : 0;
+            this.assigned = new AtomicInteger(driver.getAssignedPackages() != null ? driver.getAssignedPackages() : 0);
+            this.held = new AtomicInteger(driver.getCurrentlyHeld() != null ? driver.getCurrentlyHeld() : 0);
+        }
+    }
+
+    // The tracked drivers; membership never changes once published, the counters do
+    private static final class Fleet implements DriverLoadView {
+
+        private static final Fleet EMPTY = new Fleet(new Slot[0], Map.of());
+
+        private final Slot[] slots;
+        private final Map<Long, Integer> positions;
+
+        private Fleet(Slot[] slots, Map<Long, Integer> positions) {
+            this.slots = slots;
+            this.positions = positions;
+        }
+
+        private static Fleet of(Collection<Driver> drivers) {
+            Slot[] slots = new Slot[drivers.size()];
+            Map<Long, Integer> positions = new HashMap<>();
+            int i = 0;
+            for (Driver driver : drivers) {
+                slots[i] = new Slot(driver);
+                positions.put(driver.getId(), i);
+                i++;
+            }
+            return new Fleet(slots, positions);
+        }
+
+        private Slot slot(Long driverId) {
+            Integer position = positions.get(driverId);
+            return position != null ? slots[position] : null;
+        }
+
+        @Override
+        public int size() {
+            return slots.length;
+        }
+
+        @Override
+        public Long driverId(int position) {
+            return slots[position].id;
+        }
+
+        @Override
+        public String driverName(int position) {
+            return slots[position].name;
+        }
+
+        @Override
+        public String route(int position) {
+            return slots[position].route;
+        }
+
+        @Override
+        public int held(int position) {
+            return slots[position].held.get();
+        }
+
+        @Override
+        public int capacity(int position) {
+            return slots[position].capacity;
+        }
+
+        @Override
+        public int positionOf(Long driverId) {
+            return positions.getOrDefault(driverId, -1);
+        }
+
+        // Fewest packages held, ties broken by driver ID
+        private static int leastLoaded(DriverLoadView view) {
+            int least = 0;
+            int leastHeld = view.held(0);
+            for (int i = 1; i < view.size(); i++) {
+                int held = view.held(i);
+                if (held < leastHeld || (held == leastHeld && view.driverId(i) < view.driverId(least))) {
+                    least = i;
+                    leastHeld = held;
+                }
+            }
+            return least;
+        }
+
+        private Fleet with(Driver driver) {
+            Slot[] nextSlots = Arrays.copyOf(slots, slots.length + 1);
+            nextSlots[slots.length] = new Slot(driver);
+            Map<Long, Integer> nextPositions = new HashMap<>(positions);
+            nextPositions.put(driver.getId(), slots.length);
+            return new Fleet(nextSlots, nextPositions);
+        }
+
+        private DriverLoadView freeze() {
+            int[] held = new int[slots.length];
+            for (int i = 0; i < slots.length; i++) {
+                held[i] = slots[i].held.get();
+            }
+            Fleet live = this;
+            return new DriverLoadView() {
+                @Override
+                public int size() {
+                    return held.length;
+                }
+
+                @Override
+                public Long driverId(int position) {
+                    return live.driverId(position);
+                }
+
+                @Override
+                public String driverName(int position) {
+                    return live.driverName(position);
+                }
+
+                @Override
+                public String route(int position) {
+                    return live.route(position);
+                }
+
+                @Override
+                public int held(int position) {
+                    return held[position];
+                }
+
+                @Override
+                public int capacity(int position) {
+                    return live.capacity(position);
+                }
+
+                @Override
+                public int positionOf(Long driverId) {
+                    return live.positionOf(driverId);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.Driver;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Read-only view of driver loads handed to an AssignmentStrategy
+public interface DriverLoadView {
+
+    int size();
+
+    Long driverId(int position);
+
+    String driverName(int position);
+
+    String route(int position);
+
+    int held(int position);
+
+    int capacity(int position);
+
+    // Position of the driver in this view, or -1
+    int positionOf(Long driverId);
+
+    static DriverLoadView of(List<Driver> drivers) {
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < drivers.size(); i++) {
+            positions.put(drivers.get(i).getId(), i);
+        }
+        return new DriverLoadView() {
+            @Override
+            public int size() {
+                return drivers.size();
+            }
+
+            @Override
+            public Long driverId(int position) {
+                return drivers.get(position).getId();
+            }
+
+            @Override
+            public String driverName(int position) {
+                return drivers.get(position).getDriverName();
+            }
+
+            @Override
+            public String route(int position) {
+                return drivers.get(position).getRoute();
+            }
+
+            @Override
+            public int held(int position) {
+                Integer held = drivers.get(position).getCurrentlyHeld();
+                return held != null ? held : 0;
+            }
+
+            @Override
+            public int capacity(int position) {
+                Integer capacity = drivers.get(position).getTotalCapacity();
+                return capacity != null ? capacity : 0;
+            }
+
+            @Override
+            public int positionOf(Long driverId) {
+                return positions.getOrDefault(driverId, -1);
+            }
+        };
+    }
+}
@@ -0,0 +1,285 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.Driver;
+import com.frostyfox.ethosbackend.repository.DriverRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongPredicate;
+
+// Uniform lat/lon grid over driver positions. A nearest-driver query walks rings of cells
+// outward from the pickup's cell and stops once no unvisited ring can hold anything
+// closer than the best match, so it touches only the drivers around the pickup instead
+// of the whole fleet. Drivers the load registry reports full are tracked per cell, so
+// the walk skips cells without a driver that has room, answers at once when the whole
+// fleet is full, and in a sparse area switches to visiting the open cells nearest-first
+// once it has looked at as many cells as there are open ones. Longitudes do not wrap at
+// the antimeridian.
+@Component
+@Slf4j
+public class DriverSpatialIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    // A degree of latitude (or of longitude at the equator) on the sphere distanceKm measures
+    private static final double KM_PER_DEGREE = Math.toRadians(EARTH_RADIUS_KM);
+
+    private final DriverRepository driverRepository;
+    private final double cellDegrees;
+    private final int maxRings;
+
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+    private final Map<Long, Position> positions = new ConcurrentHashMap<>();
+    // Drivers at capacity, and per cell the number of positioned drivers that are not
+    private final Set<Long> full = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Integer> openCells = new ConcurrentHashMap<>();
+
+    public DriverSpatialIndex(DriverRepository driverRepository,
+                              @Value("${ethos.spatial.cell-degrees:0.05}") double cellDegrees,
+                              @Value("${ethos.spatial.max-rings:64}") int maxRings) {
+        this.driverRepository = driverRepository;
+        this.cellDegrees = cellDegrees;
+        this.maxRings = maxRings;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFromDatabase() {
+        try {
+            driverRepository.findAll().forEach(this::update);
+            log.info("Driver spatial index loaded: {} positioned drivers", positions.size());
+        } catch (Exception e) {
+            log.error("Error loading driver spatial index", e);
+        }
+    }
+
+    // Indexes the driver's current position, or drops it when the driver has none
+    public synchronized void update(Driver driver) {
+        if (driver.getLatitude() == null || driver.getLongitude() == null) {
+            remove(driver.getId());
+            return;
+        }
+        long cell = cellKey(row(driver.getLatitude()), column(driver.getLongitude()));
+        Position previous = positions.put(driver.getId(),
+            new Position(driver.getLatitude(), driver.getLongitude(), cell));
+        if (previous != null && previous.cell() == cell) {
+            return;
+        }
+        if (previous != null) {
+            removeFromCell(previous.cell(), driver.getId());
+        }
+        cells.compute(cell, (key, drivers) -> {
+            Set<Long> updated = drivers != null ? drivers : ConcurrentHashMap.newKeySet();
+            updated.add(driver.getId());
+            return updated;
+        });
+        if (!full.contains(driver.getId())) {
+            adjustOpen(cell, 1);
+        }
+    }
+
+    public synchronized void remove(Long driverId) {
+        Position previous = positions.remove(driverId);
+        if (previous != null) {
+            removeFromCell(previous.cell(), driverId);
+        }
+    }
+
+    // Re-reads whether the driver is at capacity; evaluated under the index lock, so the
+    // last of several racing refreshes sees the latest load
+    public synchronized void refreshCapacity(Long driverId, BooleanSupplier atCapacity) {
+        boolean changed = atCapacity.getAsBoolean() ? full.add(driverId) : full.remove(driverId);
+        Position position = positions.get(driverId);
+        if (changed && position != null) {
+            adjustOpen(position.cell(), full.contains(driverId) ? -1 : 1);
+        }
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    // Closest eligible driver with room within max-rings cells of the point, or null
+    public Long nearest(double latitude, double longitude, LongPredicate eligible) {
+        int row = row(latitude);
+        int column = column(longitude);
+        Match match = new Match(latitude, longitude, eligible);
+
+        int walked = 0;
+        for (int ring = 0; ring <= maxRings; ring++) {
+            if (openCells.isEmpty() || (match.best != null && ringMinKm(ring, latitude) >= match.bestKm)) {
+                break;
+            }
+            walked += ring == 0 ? 1 : 8 * ring;
+            if (walked > openCells.size()) {
+                visitOpenCells(row, column, ring, match);
+                break;
+            }
+            for (int dr = -ring; dr <= ring; dr++) {
+                // Whole rows on the ring's top and bottom edges, only the two ends elsewhere
+                int step = Math.abs(dr) == ring ? 1 : Math.max(1, 2 * ring);
+                for (int dc = -ring; dc <= ring; dc += step) {
+                    long cell = cellKey(row + dr, column + dc);
+                    if (openCells.containsKey(cell)) {
+                        visit(cell, match);
+                    }
+                }
+            }
+        }
+        return match.best;
+    }
+
+    // Visits the open cells from the given ring outwards, bucketed by ring so the scan
+    // stops at the first ring that cannot beat the best match; within a ring, cells that
+    // cannot hold anything closer are skipped without looking at their drivers
+    private void visitOpenCells(int row, int column, int fromRing, Match match) {
+        long[] candidates = new long[openCells.size()];
+        int[] rings = new int[candidates.length];
+        int[] perRing = new int[maxRings + 2];
+        int count = 0;
+        for (long cell : openCells.keySet()) {
+            int ring = Math.max(Math.abs(cellRow(cell) - row), Math.abs(cellColumn(cell) - column));
+            if (ring >= fromRing && ring <= maxRings && count < candidates.length) {
+                candidates[count] = cell;
+                rings[count++] = ring;
+                perRing[ring + 1]++;
+            }
+        }
+        // Counting sort by ring
+        for (int ring = 1; ring < perRing.length; ring++) {
+            perRing[ring] += perRing[ring - 1];
+        }
+        long[] byRing = new long[count];
+        int[] next = Arrays.copyOf(perRing, perRing.length);
+        for (int i = 0; i < count; i++) {
+            byRing[next[rings[i]]++] = candidates[i];
+        }
+
+        for (int ring = fromRing; ring <= maxRings; ring++) {
+            if (match.best != null && ringMinKm(ring, match.latitude) >= match.bestKm) {
+                return;
+            }
+            double lonKm = lonKmPerDegree(ring, match.latitude);
+            for (int i = perRing[ring]; i < perRing[ring + 1]; i++) {
+                if (match.best == null || cellMinKm(byRing[i], lonKm, match) < match.bestKm) {
+                    visit(byRing[i], match);
+                }
+            }
+        }
+    }
+
+    private void visit(long cell, Match match) {
+        Set<Long> drivers = cells.get(cell);
+        if (drivers == null) {
+            return;
+        }
+        for (Long driverId : drivers) {
+            Position position = positions.get(driverId);
+            if (position == null || full.contains(driverId) || !match.eligible.test(driverId)) {
+                continue;
+            }
+            double km = distanceKm(match.latitude, match.longitude, position.latitude(), position.longitude());
+            if (km < match.bestKm || (km == match.bestKm && driverId < match.best)) {
+                match.best = driverId;
+                match.bestKm = km;
+            }
+        }
+    }
+
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+            Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+
+    // Lower bound on the distance from a point in the centre cell to any cell of the ring;
+    // a degree of longitude is shortest at the ring's most poleward latitude
+    private double ringMinKm(int ring, double latitude) {
+        if (ring <= 1) {
+            return 0.0;
+        }
+        return (ring - 1) * cellDegrees * lonKmPerDegree(ring, latitude);
+    }
+
+    // Shortest degree of longitude within the ring, in km
+    private double lonKmPerDegree(int ring, double latitude) {
+        double poleward = Math.min(89.0, Math.abs(latitude) + (ring + 1) * cellDegrees);
+        return KM_PER_DEGREE * Math.cos(Math.toRadians(poleward));
+    }
+
+    // Lower bound on the distance from the query point to any point of the cell: the
+    // latitude and longitude gaps combined, a degree of longitude at its ring's shortest
+    private double cellMinKm(long cell, double lonKm, Match match) {
+        double south = cellRow(cell) * cellDegrees;
+        double west = cellColumn(cell) * cellDegrees;
+        double latGap = Math.max(0.0, Math.max(south - match.latitude, match.latitude - (south + cellDegrees)));
+        double lonGap = Math.max(0.0, Math.max(west - match.longitude, match.longitude - (west + cellDegrees)));
+        double northKm = latGap * KM_PER_DEGREE;
+        double eastKm = lonGap * lonKm;
+        return Math.sqrt(northKm * northKm + eastKm * eastKm);
+    }
+
+    private void removeFromCell(long cell, Long driverId) {
+        cells.computeIfPresent(cell, (key, drivers) -> {
+            drivers.remove(driverId);
+            return drivers.isEmpty() ? null : drivers;
+        });
+        if (!full.contains(driverId)) {
+            adjustOpen(cell, -1);
+        }
+    }
+
+    private void adjustOpen(long cell, int delta) {
+        openCells.compute(cell, (key, count) -> {
+            int updated = (count != null ? count : 0) + delta;
+            return updated > 0 ? updated : null;
+        });
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor(latitude / cellDegrees);
+    }
+
+    private int column(double longitude) {
+        return (int) Math.floor(longitude / cellDegrees);
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    private static int cellRow(long cell) {
+        return (int) (cell >> 32);
+    }
+
+    private static int cellColumn(long cell) {
+        return (int) cell;
+    }
+
+    private record Position(double latitude, double longitude, long cell) {
+    }
+
+
+    // Best candidate so far in one nearest() query
+    private static final class Match {
+        private final double latitude;
+        private final double longitude;
+        private final LongPredicate eligible;
+        private Long best;
+        private double bestKm = Double.MAX_VALUE;
+
+        private Match(double latitude, double longitude, LongPredicate eligible) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.eligible = eligible;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.Driver;
+import com.frostyfox.ethosbackend.model.PackagePriority;
+import com.frostyfox.ethosbackend.repository.DriverRepository;
+import com.frostyfox.ethosbackend.repository.PackagePriorityRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Read-through cache of package and driver rows by id, in front of findById. Both caches
+// are size-bounded (Caffeine's W-TinyLFU eviction) and report hits and misses as
+// cache.gets{cache=packages|drivers}. Every write to a cached row invalidates it, so the
+// next read goes to Postgres; the TTL only bounds writes made outside this application.
+// The priority and driver-load counters are overlaid from PriorityIndex and
+// DriverLoadRegistry on every read, so re-ranks and load changes need no invalidation to
+// be visible. Callers get their own copy of the cached row, so they may overlay or modify
+// it without other readers seeing the change. Missing rows are not cached.
+@Component
+@Slf4j
+public class EntityCache {
+
+    private final PackagePriorityRepository packagePriorityRepository;
+    private final DriverRepository driverRepository;
+    private final boolean enabled;
+    private final Cache<Long, PackagePriority> packages;
+    private final Cache<Long, Driver> drivers;
+
+    public EntityCache(PackagePriorityRepository packagePriorityRepository,
+                       DriverRepository driverRepository,
+                       MeterRegistry registry,
+                       @Value("${ethos.entity-cache.enabled:true}") boolean enabled,
+                       @Value("${ethos.entity-cache.max-packages:20000}") long maxPackages,
+                       @Value("${ethos.entity-cache.max-drivers:1000}") long maxDrivers,
+                       @Value("${ethos.entity-cache.ttl-minutes:10}") long ttlMinutes) {
+        this.packagePriorityRepository = packagePriorityRepository;
+        this.driverRepository = driverRepository;
+        this.enabled = enabled;
+        this.packages = build(maxPackages, ttlMinutes);
+        this.drivers = build(maxDrivers, ttlMinutes);
+        CaffeineCacheMetrics.monitor(registry, packages, "packages");
+        CaffeineCacheMetrics.monitor(registry, drivers, "drivers");
+    }
+
+    // A detached copy; writers update the changed columns and then invalidate
+    public PackagePriority getPackage(Long id) {
+        if (!enabled) {
+            return packagePriorityRepository.findById(id).orElse(null);
+        }
+        return copy(packages.get(id, key -> packagePriorityRepository.findById(key).orElse(null)));
+    }
+
+    public Driver getDriver(Long id) {
+        if (!enabled) {
+            return driverRepository.findById(id).orElse(null);
+        }
+        return copy(drivers.get(id, key -> driverRepository.findById(key).orElse(null)));
+    }
+
+    // Waits for an in-flight load of the same id, so a row read before the write is not kept
+    public void invalidatePackage(Long id) {
+        packages.invalidate(id);
+    }
+
+    public void invalidatePackages(Collection<Long> ids) {
+        packages.invalidateAll(ids);
+    }
+
+    public void invalidateAllPackages() {
+        packages.invalidateAll();
+    }
+
+    public void invalidateDriver(Long id) {
+        drivers.invalidate(id);
+    }
+
+    public void invalidateAllDrivers() {
+        drivers.invalidateAll();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("packages", stats(packages));
+        result.put("drivers", stats(drivers));
+        return result;
+    }
+
+    private static PackagePriority copy(PackagePriority pkg) {
+        return pkg == null ? null : new PackagePriority(pkg.getId(), pkg.getPackageId(), pkg.getCurrentPriority(),
+            pkg.getDeliveryType(), pkg.getPickupLocation(), pkg.getDestination(), pkg.getDeliveryTime(),
+            pkg.getEthicalScore(), pkg.getPythonResponse(), pkg.getExplanation(), pkg.getAssignedDriver(),
+            pkg.getScoreInherited(), pkg.getInheritedFromPackageId(), pkg.getCreatedAt());
+    }
+
+    private static Driver copy(Driver driver) {
+        return driver == null ? null : new Driver(driver.getId(), driver.getDriverName(), driver.getRoute(),
+            driver.getAssignedPackages(), driver.getCurrentlyHeld(), driver.getTotalCapacity(),
+            driver.getLatitude(), driver.getLongitude(), driver.getStatus(), driver.getCreatedAt());
+    }
+
+    private static <V> Cache<Long, V> build(long maxSize, long ttlMinutes) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+    }
+
+    private static Map<String, Object> stats(Cache<Long, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("evictions", stats.evictionCount());
+        result.put("hitRate", stats.hitRate());
+        return result;
+    }
+}
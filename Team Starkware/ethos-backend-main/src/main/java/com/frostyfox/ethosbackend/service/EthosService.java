@@ -1,5 +1,7 @@
 package com.frostyfox.ethosbackend.service;
 
+import com.frostyfox.ethosbackend.model.AnalysisResult;
+import com.frostyfox.ethosbackend.model.AnalyzerResponse;
 import com.frostyfox.ethosbackend.model.EthosModel;
 import com.frostyfox.ethosbackend.model.PackagePriority;
 import com.frostyfox.ethosbackend.repository.EthosRepository;
@@ -7,12 +9,13 @@ import com.frostyfox.ethosbackend.repository.PackagePriorityRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import java.util.List;
-import org.springframework.http.MediaType;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Locale;
 import java.util.Map;
 import java.util.LinkedHashMap;
 
@@ -23,95 +26,143 @@ public class EthosService {
     private final EthosRepository ethosRepository;
     private final PackagePriorityRepository packagePriorityRepository;
     private final DistributionService distributionService;
-    private final WebClient webClient;
+    private final PriorityIndex priorityIndex;
+    private final AnalyzerClient analyzerClient;
+    private final AnalysisCache analysisCache;
+    private final SimilarityIndex similarityIndex;
+    private final PackageStatsAggregator packageStatsAggregator;
+    private final PackagePager packagePager;
+    private final PackageIdGenerator packageIdGenerator;
+    private final IngestionMetrics ingestionMetrics;
+    private final ExplanationBackfillJob explanationBackfillJob;
+    private final DashboardEvents dashboardEvents;
+    private final EntityCache entityCache;
 
     public String getEthos(EthosModel ethosModel){
         return ethosRepository.save(ethosModel).getPackageDescription();
     }
 
-    public Object forwardToPython(EthosModel ethosModel) {
+    public AnalyzerResponse forwardToPython(EthosModel ethosModel) {
 
-        Map<String, String> payload = Map.of(
-                "description", ethosModel.getPackageDescription()
-        );
-
-        Object response = webClient.post()
-                .uri("/ai/analyze")
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(payload)
-                .retrieve()
-                .bodyToMono(Object.class)
-                .block();
+        AnalysisResult analysis = analyze(ethosModel);
+        AnalyzerResponse response = analysis.getPythonResponse();
 
-        System.out.println("TTTTTTTTTTTTTTHHHHHHHHEEEEEEEEEEE");
         // Save package priority to database
-        savePackagePriority(ethosModel, response);
+        savePackagePriority(ethosModel, analysis);
         
         log.info("Python API Response: {}", response);
-        System.out.println("=== /api/ethos Response ===");
-        System.out.println("Response: " + response);
-        System.out.println("==========================");
         
         return response;
     }
     
-    private void savePackagePriority(EthosModel ethosModel, Object pythonResponse) {
-        try {
-            String responseJson = pythonResponse.toString();
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-            
-            // Parse the response to extract ethical score and priority
-            Double ethicalScore = extractEthicalScore(pythonResponse);
-            Integer priority = calculatePriority(ethicalScore);
-            
-            PackagePriority packagePriority = new PackagePriority();
-            packagePriority.setPackageId("PKG-" + System.currentTimeMillis()); // Generate unique package ID
-            packagePriority.setCurrentPriority(priority);
-            packagePriority.setDeliveryType(determineDeliveryType(pythonResponse));
-            packagePriority.setPickupLocation(ethosModel.getPickupLocation());
-            packagePriority.setDestination(ethosModel.getDestination());
-            packagePriority.setDeliveryTime(ethosModel.getDeliveryTime());
-            packagePriority.setEthicalScore(ethicalScore);
-            packagePriority.setPythonResponse(responseJson);
-            packagePriority.setExplanation(generateSimpleExplanation(packagePriority));
-            packagePriority.setCreatedAt(timestamp);
-            
-            packagePriorityRepository.save(packagePriority);
+    // Ingestion stages: analyze -> persist -> rank -> assign. The synchronous /api/ethos path
+    // runs them back to back; IngestionPipeline runs them as separate bounded stages.
+    public AnalysisResult analyze(EthosModel ethosModel) {
+        return ingestionMetrics.time(IngestionMetrics.ANALYZE, () -> analysisCache.get(ethosModel.getPackageDescription(), description -> {
+            // Near-duplicates of an analyzed package inherit its score instead of calling the analyzer
+            SimilarityIndex.Match match = similarityIndex.findNearest(description);
+            if (match != null) {
+                log.info("Reusing analysis of package {} (similarity {})", match.packageId(), match.similarity());
+                AnalysisResult source = match.analysis();
+                return new AnalysisResult(source.getPythonResponse(),
+                    source.getPythonResponseJson(),
+                    source.getEthicalScore(),
+                    source.getDeliveryType(),
+                    match.packageId());
+            }
             
-            // Recalculate all priorities based on ethical scores
-            recalculateAllPriorities();
+            AnalyzerResponse pythonResponse;
+            try {
+                pythonResponse = ingestionMetrics.time(IngestionMetrics.ANALYZER, () -> analyzerClient.analyze(description));
+            } catch (RuntimeException e) {
+                ingestionMetrics.analyzerError(e);
+                throw e;
+            }
+            // Parse once; cached results skip extraction entirely
+            return ingestionMetrics.time(IngestionMetrics.PARSE, () -> new AnalysisResult(pythonResponse,
+                pythonResponse != null ? pythonResponse.toJson() : null,
+                extractEthicalScore(pythonResponse),
+                determineDeliveryType(pythonResponse),
+                null));
+        }));
+    }
+    
+    public PackagePriority persistPackage(EthosModel ethosModel, AnalysisResult analysis) {
+        PackagePriority packagePriority = newPackage(ethosModel, analysis);
+        PackagePriority saved = ingestionMetrics.time(IngestionMetrics.PERSIST, () -> packagePriorityRepository.save(packagePriority));
+        recordPersisted(ethosModel, saved, analysis);
+        return saved;
+    }
+    
+    // The unsaved row for an analyzed submission; BatchIngestion inserts these itself
+    PackagePriority newPackage(EthosModel ethosModel, AnalysisResult analysis) {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        
+        Double ethicalScore = analysis.getEthicalScore();
+        Integer priority = calculatePriority(ethicalScore);
+        
+        PackagePriority packagePriority = new PackagePriority();
+        packagePriority.setPackageId(packageIdGenerator.nextPackageId());
+        packagePriority.setCurrentPriority(priority);
+        packagePriority.setDeliveryType(analysis.getDeliveryType());
+        packagePriority.setPickupLocation(ethosModel.getPickupLocation());
+        packagePriority.setDestination(ethosModel.getDestination());
+        packagePriority.setDeliveryTime(ethosModel.getDeliveryTime());
+        packagePriority.setEthicalScore(ethicalScore);
+        packagePriority.setPythonResponse(analysis.getPythonResponseJson());
+        packagePriority.setScoreInherited(analysis.getInheritedFromPackageId() != null);
+        packagePriority.setInheritedFromPackageId(analysis.getInheritedFromPackageId());
+        packagePriority.setExplanation(generateSimpleExplanation(packagePriority));
+        packagePriority.setCreatedAt(timestamp);
+        return packagePriority;
+    }
+    
+    // Counts a saved package in the stats and offers its analysis to later near-duplicates
+    void recordPersisted(EthosModel ethosModel, PackagePriority saved, AnalysisResult analysis) {
+        packageStatsAggregator.recordPackage(saved);
+        if (analysis.getInheritedFromPackageId() == null) {
+            similarityIndex.record(ethosModel.getPackageDescription(), saved.getPackageId(), analysis);
+        }
+    }
+    
+    // Ranks the package against all others; the snapshot is persisted on driver assignment
+    public int rankPackage(PackagePriority packagePriority) {
+        int priority = ingestionMetrics.time(IngestionMetrics.RANK,
+            () -> priorityIndex.add(packagePriority.getId(), packagePriority.getEthicalScore()));
+        packagePriority.setCurrentPriority(priority);
+        dashboardEvents.packageRanked(packagePriority);
+        return priority;
+    }
+    
+    public void assignPackage(PackagePriority packagePriority) {
+        distributionService.assignNewPackageToDriver(packagePriority);
+    }
+    
+    private void savePackagePriority(EthosModel ethosModel, AnalysisResult analysis) {
+        try {
+            PackagePriority packagePriority = persistPackage(ethosModel, analysis);
+            int priority = rankPackage(packagePriority);
             
             // Assign new package to driver automatically
-            distributionService.assignNewPackageToDriver(packagePriority);
+            assignPackage(packagePriority);
             
             log.info("Package priority saved with ID: {}, Priority: {}, Ethical Score: {}", 
-                    packagePriority.getId(), priority, ethicalScore);
+                    packagePriority.getId(), priority, packagePriority.getEthicalScore());
             
         } catch (Exception e) {
             log.error("Failed to save package priority", e);
         }
     }
     
-    private Double extractEthicalScore(Object response) {
-        try {
-            if (response instanceof LinkedHashMap) {
-                LinkedHashMap<?, ?> responseMap = (LinkedHashMap<?, ?>) response;
-                Object scoreObj = responseMap.get("score");
-                if (scoreObj instanceof LinkedHashMap) {
-                    LinkedHashMap<?, ?> scoreMap = (LinkedHashMap<?, ?>) scoreObj;
-                    Object totalScore = scoreMap.get("total_score");
-                    if (totalScore != null) {
-                        return Double.parseDouble(totalScore.toString());
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.error("Error extracting ethical score", e);
+    Double extractEthicalScore(AnalyzerResponse response) {
+        if (response != null && response.score() != null && response.score().totalScore() != null) {
+            return response.score().totalScore();
         }
-        return 0.0; // Default score if extraction fails
+        ingestionMetrics.defaultScore();
+        return 0.0; // Default score if the analyzer sent none
     }
     
-    private Integer calculatePriority(Double ethicalScore) {
+    static Integer calculatePriority(Double ethicalScore) {
         if (ethicalScore >= 8.0) {
             return 1; // Critical Priority
         } else if (ethicalScore >= 6.0) {
@@ -123,26 +174,18 @@ public class EthosService {
         }
     }
     
-    private String determineDeliveryType(Object pythonResponse) {
-        try {
-            if (pythonResponse instanceof LinkedHashMap) {
-                LinkedHashMap<?, ?> responseMap = (LinkedHashMap<?, ?>) pythonResponse;
-                String explanation = responseMap.get("explanation") != null ? 
-                    responseMap.get("explanation").toString() : "";
-                
-                // Extract domain from explanation
-                String domain = extractDomainFromExplanation(explanation);
-                System.out.println("Extracted domain: " + domain);
-                
-                return domain.toUpperCase();
-            }
-        } catch (Exception e) {
-            log.error("Error determining delivery type", e);
+    String determineDeliveryType(AnalyzerResponse response) {
+        if (response == null) {
+            return "STANDARD";
         }
-        return "STANDARD";
+        if (response.domain() != null && !response.domain().isBlank()) {
+            return response.domain().trim().toUpperCase(Locale.ROOT);
+        }
+        // Analyzers without the domain field only name it in the explanation text
+        return response.explanation() != null ? extractDomainFromExplanation(response.explanation()) : "STANDARD";
     }
     
-    private String extractDomainFromExplanation(String explanation) {
+    String extractDomainFromExplanation(String explanation) {
         try {
             // Look for pattern "associated with the DOMAIN domain."
             String pattern = "associated with the ";
@@ -152,8 +195,8 @@ public class EthosService {
                 int endIndex = explanation.indexOf(" domain.", startIndex);
                 if (endIndex != -1) {
                     String domain = explanation.substring(startIndex, endIndex);
-                    System.out.println("Found domain: " + domain);
-                    return domain.toUpperCase();
+                    log.debug("Found domain: {}", domain);
+                    return domain.toUpperCase(Locale.ROOT);
                 }
             }
         } catch (Exception e) {
@@ -162,129 +205,126 @@ public class EthosService {
         return "STANDARD";
     }
     
-    private void recalculateAllPriorities() {
+    @EventListener(ApplicationReadyEvent.class)
+    public void rerankOnStartup() {
+        rerankAllPriorities();
+    }
+    
+    // Full re-rank of the persisted priorities, done database-side in one statement
+    public Map<String, Object> rerankAllPriorities() {
         try {
-            // Get all packages ordered by ethical score (highest first)
-            List<PackagePriority> allPackages = packagePriorityRepository.findAllOrderByEthicalScoreDesc();
-            
-            int updatedCount = 0;
-            for (int i = 0; i < allPackages.size(); i++) {
-                PackagePriority pkg = allPackages.get(i);
-                Integer newPriority = i + 1; // Priority 1 for highest score, 2 for second highest, etc.
-                
-                // Only update if priority actually changed
-                if (!pkg.getCurrentPriority().equals(newPriority)) {
-                    Integer oldPriority = pkg.getCurrentPriority();
-                    pkg.setCurrentPriority(newPriority);
-                    packagePriorityRepository.save(pkg);
-                    updatedCount++;
-                    
-                    log.info("Updated package ID {} from priority {} to {} (ethical score: {})", 
-                        pkg.getId(), oldPriority, newPriority, pkg.getEthicalScore());
-                }
-            }
-            
-            if (updatedCount > 0) {
-                log.info("Priority recalculation completed: {} packages updated", updatedCount);
-                System.out.println("=== PRIORITY RECALCULATION ===");
-                System.out.println("Recalculated priorities based on ethical scores");
-                System.out.println("Updated " + updatedCount + " packages");
-                System.out.println("Highest ethical score now has Priority 1");
-                System.out.println("===============================");
-            }
+            long start = System.nanoTime();
+            int rowsUpdated = packagePriorityRepository.rerankByEthicalScore();
+            entityCache.invalidateAllPackages();
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
             
+            log.info("Priority re-rank completed: {} packages updated in {} ms", rowsUpdated, elapsedMs);
+            return Map.of(
+                "message", "Re-ranked package priorities by ethical score",
+                "rowsUpdated", rowsUpdated,
+                "elapsedMs", elapsedMs
+            );
         } catch (Exception e) {
-            log.error("Error during priority recalculation", e);
+            log.error("Error during priority re-rank", e);
+            return Map.of(
+                "message", "Error: " + e.getMessage(),
+                "error", true
+            );
         }
     }
     
+    public Map<String, Object> getAnalysisCacheStats() {
+        return analysisCache.getStats();
+    }
+    
+    public Map<String, Object> getEntityCacheStats() {
+        return entityCache.getStats();
+    }
+    
+    public Map<String, Object> flushAnalysisCache() {
+        long flushed = analysisCache.flush();
+        return Map.of(
+            "message", "Flushed analysis cache",
+            "entriesFlushed", flushed
+        );
+    }
+    
     // Package management methods
     public List<PackagePriority> getAllPackages() {
-        return packagePriorityRepository.findAllOrderByEthicalScoreDesc();
+        List<PackagePriority> packages = packagePriorityRepository.findAllOrderByEthicalScoreDesc();
+        priorityIndex.applyTo(packages);
+        return packages;
     }
     
     public List<PackagePriority> getPackagesByDeliveryType(String deliveryType) {
-        return packagePriorityRepository.findAll()
-            .stream()
-            .filter(pkg -> pkg.getDeliveryType().equalsIgnoreCase(deliveryType))
-            .toList();
+        // Delivery types are stored upper-case, so an exact match is case-insensitive
+        List<PackagePriority> packages =
+            packagePriorityRepository.findByDeliveryTypeOrderByScore(deliveryType.toUpperCase(Locale.ROOT));
+        priorityIndex.applyTo(packages);
+        return packages;
+    }
+    
+    public Map<String, Object> getPackagesPage(String cursor, Integer limit, String fields) {
+        return packagePager.page(cursor, limit, fields, packagePriorityRepository::findSummariesAfter);
+    }
+    
+    public Map<String, Object> getPackagesByDeliveryTypePage(String deliveryType, String cursor,
+                                                             Integer limit, String fields) {
+        // Delivery types are stored upper-case, so an exact match is case-insensitive
+        String type = deliveryType.toUpperCase(Locale.ROOT);
+        return packagePager.page(cursor, limit, fields, (score, id, pageLimit) ->
+            packagePriorityRepository.findSummariesByDeliveryTypeAfter(type, score, id, pageLimit));
     }
     
     public Map<String, Object> getPackageStats() {
-        List<PackagePriority> allPackages = packagePriorityRepository.findAll();
-        
-        // Count by priority
-        Map<Integer, Long> priorityCounts = allPackages.stream()
-            .collect(java.util.stream.Collectors.groupingBy(
-                PackagePriority::getCurrentPriority, 
-                java.util.stream.Collectors.counting()
-            ));
-        
-        // Count by delivery type
-        Map<String, Long> deliveryTypeCounts = allPackages.stream()
-            .collect(java.util.stream.Collectors.groupingBy(
-                PackagePriority::getDeliveryType, 
-                java.util.stream.Collectors.counting()
-            ));
-        
-        // Average ethical score
-        double avgEthicalScore = allPackages.stream()
-            .mapToDouble(PackagePriority::getEthicalScore)
-            .average()
-            .orElse(0.0);
-        
-        return Map.of(
-            "totalPackages", allPackages.size(),
-            "priorityDistribution", priorityCounts,
-            "deliveryTypeDistribution", deliveryTypeCounts,
-            "averageEthicalScore", avgEthicalScore,
-            "highestPriorityPackage", allPackages.stream()
-                .min((a, b) -> b.getEthicalScore().compareTo(a.getEthicalScore()))
-                .orElse(null),
-            "lowestPriorityPackage", allPackages.stream()
-                .min((a, b) -> a.getEthicalScore().compareTo(b.getEthicalScore()))
-                .orElse(null)
-        );
+        // Counters are maintained on insert; only the two extremes are loaded by id
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalPackages", packageStatsAggregator.getTotalPackages());
+        stats.put("priorityDistribution", packageStatsAggregator.getTierDistribution());
+        stats.put("deliveryTypeDistribution", packageStatsAggregator.getDeliveryTypeDistribution());
+        stats.put("averageEthicalScore", packageStatsAggregator.getAverageEthicalScore());
+        stats.put("highestPriorityPackage", getPackageAtPriority(1));
+        stats.put("lowestPriorityPackage", getPackageAtPriority(priorityIndex.size()));
+        return stats;
+    }
+    
+    private PackagePriority getPackageAtPriority(int priority) {
+        Long id = priorityIndex.idAtPriority(priority);
+        return id != null ? getPackageById(id) : null;
     }
     
     public PackagePriority getPackageById(Long id) {
-        return packagePriorityRepository.findById(id).orElse(null);
+        PackagePriority pkg = entityCache.getPackage(id);
+        priorityIndex.applyTo(pkg);
+        return pkg;
     }
     
-    public String populateExistingPackageExplanations() {
-        try {
-            List<PackagePriority> allPackages = packagePriorityRepository.findAll();
-            int updatedCount = 0;
-            
-            for (PackagePriority pkg : allPackages) {
-                if (pkg.getExplanation() == null || pkg.getExplanation().isEmpty()) {
-                    pkg.setExplanation(generateSimpleExplanation(pkg));
-                    packagePriorityRepository.save(pkg);
-                    updatedCount++;
-                }
-            }
-            
-            log.info("Populated explanations for {} existing packages", updatedCount);
-            return "Successfully populated explanations for " + updatedCount + " packages";
-            
-        } catch (Exception e) {
-            log.error("Error populating existing package explanations", e);
-            return "Error: " + e.getMessage();
-        }
+    // Fills in missing explanations in the background; null when a backfill is already running
+    public Map<String, Object> startExplanationBackfill() {
+        return explanationBackfillJob.start();
+    }
+    
+    public Map<String, Object> getExplanationBackfill(String jobId) {
+        return explanationBackfillJob.getStatus(jobId);
     }
     
     public Map<String, Object> getPackageExplanation(Long id, boolean forceRegenerate) {
-        PackagePriority pkg = packagePriorityRepository.findById(id).orElse(null);
+        PackagePriority pkg = entityCache.getPackage(id);
         
         if (pkg == null) {
             return null;
         }
+        priorityIndex.applyTo(pkg);
         
-        // If no explanation exists or force=true, generate and store it
+        // If no explanation exists or force=true, generate and store it; only the explanation
+        // column is written, so a concurrent driver assignment is not overwritten
         if (pkg.getExplanation() == null || forceRegenerate) {
             String explanation = generateSimpleExplanation(pkg);
-            pkg.setExplanation(explanation);
-            packagePriorityRepository.save(pkg);
+            try {
+                packagePriorityRepository.updateExplanation(id, explanation);
+            } finally {
+                entityCache.invalidatePackage(id);
+            }
             return Map.of(
                 "packageId", pkg.getPackageId(),
                 "explanation", explanation,
@@ -300,71 +340,9 @@ public class EthosService {
         );
     }
     
-    private String generateSimpleExplanation(PackagePriority pkg) {
-        StringBuilder explanation = new StringBuilder();
-        
-        // Start with delivery type context
-        if ("MEDICAL_EXPRESS".equals(pkg.getDeliveryType())) {
-            explanation.append("This medical package from ").append(pkg.getPickupLocation())
-                      .append(" to ").append(pkg.getDestination())
-                      .append(" contains critical medical supplies with an ethical score of ")
-                      .append(pkg.getEthicalScore()).append(", ");
-            
-            if (pkg.getEthicalScore() >= 8.0) {
-                explanation.append("requiring immediate delivery as delays could cause serious harm to patients.");
-            } else if (pkg.getEthicalScore() >= 6.0) {
-                explanation.append("needing priority delivery to ensure timely medical treatment.");
-            } else {
-                explanation.append("requiring careful handling and timely delivery for patient care.");
-            }
-            
-        } else if ("FOOD_EXPRESS".equals(pkg.getDeliveryType())) {
-            explanation.append("This food package traveling from ").append(pkg.getPickupLocation())
-                      .append(" to ").append(pkg.getDestination())
-                      .append(" has an ethical score of ").append(pkg.getEthicalScore())
-                      .append(" and ");
-            
-            if (pkg.getEthicalScore() >= 6.0) {
-                explanation.append("contains perishable items that will spoil if not delivered quickly by ")
-                          .append(pkg.getDeliveryTime()).append(".");
-            } else {
-                explanation.append("requires timely delivery to maintain food quality for the recipient.");
-            }
-            
-        } else if ("ESSENTIAL".equals(pkg.getDeliveryType())) {
-            explanation.append("This essential package from ").append(pkg.getPickupLocation())
-                      .append(" to ").append(pkg.getDestination())
-                      .append(" has an ethical score of ").append(pkg.getEthicalScore())
-                      .append(" and ");
-            
-            if (pkg.getEthicalScore() >= 7.0) {
-                explanation.append("contains items that someone urgently needs, requiring priority delivery by ")
-                          .append(pkg.getDeliveryTime()).append(".");
-            } else {
-                explanation.append("contains important items needed by the recipient, warranting priority handling.");
-            }
-            
-        } else {
-            // Standard packages with contextual details
-            explanation.append("This package from ").append(pkg.getPickupLocation())
-                      .append(" to ").append(pkg.getDestination())
-                      .append(" has an ethical score of ").append(pkg.getEthicalScore());
-            
-            if (pkg.getEthicalScore() >= 5.0) {
-                explanation.append(" and requires priority delivery due to its importance level.");
-            } else if (pkg.getEthicalScore() >= 3.0) {
-                explanation.append(" and should be delivered by ").append(pkg.getDeliveryTime())
-                          .append(" to meet the recipient's needs.");
-            } else {
-                explanation.append(" and can be delivered with standard priority handling.");
-            }
-        }
-        
-        // Add priority context
-        explanation.append(" It is assigned Priority ").append(pkg.getCurrentPriority())
-                  .append(" based on its relative importance compared to other packages.");
-        
-        return explanation.toString();
+    String generateSimpleExplanation(PackagePriority pkg) {
+        return ExplanationTemplates.render(pkg.getDeliveryType(), pkg.getPickupLocation(), pkg.getDestination(),
+            pkg.getDeliveryTime(), pkg.getEthicalScore(), pkg.getCurrentPriority());
     }
 
 //    public void sendEthos(EthosModel ethosModel){
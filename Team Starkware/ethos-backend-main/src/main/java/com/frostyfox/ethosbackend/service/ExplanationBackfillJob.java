@@ -0,0 +1,159 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.PackageSummary;
+import com.frostyfox.ethosbackend.repository.PackagePriorityRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+// Fills in explanations for packages that have none, in the background. Packages missing
+// an explanation are streamed in id order in chunks, rendered in parallel from the compiled
+// templates, and written with one JDBC batch per chunk. The scan only selects rows that
+// still lack an explanation, so a job that failed or was cut short by a restart resumes
+// where it stopped when started again. A partial index keeps that scan cheap once most
+// rows are filled.
+@Component
+@Slf4j
+public class ExplanationBackfillJob {
+
+    private static final String MISSING_INDEX_SQL =
+        "CREATE INDEX IF NOT EXISTS idx_package_priorities_missing_explanation ON package_priorities (id) " +
+        "WHERE explanation IS NULL OR explanation = ''";
+    // Leaves explanations written since the chunk was read, e.g. by GET /{id}/explanation, alone
+    private static final String UPDATE_EXPLANATION_SQL =
+        "UPDATE package_priorities SET explanation = ? WHERE id = ? AND (explanation IS NULL OR explanation = '')";
+
+    private final PackagePriorityRepository packagePriorityRepository;
+    private final PriorityIndex priorityIndex;
+    private final EntityCache entityCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final ForkJoinPool renderPool;
+    private final JobTracker<JobStatus> jobs;
+
+    public ExplanationBackfillJob(PackagePriorityRepository packagePriorityRepository,
+                                  PriorityIndex priorityIndex,
+                                  EntityCache entityCache,
+                                  JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${ethos.explanation-backfill.chunk-size:5000}") int chunkSize,
+                                  @Value("${ethos.explanation-backfill.parallelism:0}") int parallelism,
+                                  @Value("${ethos.explanation-backfill.retained-jobs:20}") int retainedJobs) {
+        this.packagePriorityRepository = packagePriorityRepository;
+        this.priorityIndex = priorityIndex;
+        this.entityCache = entityCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.renderPool = JobTracker.newPool(parallelism);
+        this.jobs = new JobTracker<>(retainedJobs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureMissingExplanationIndex() {
+        try {
+            jdbcTemplate.execute(MISSING_INDEX_SQL);
+        } catch (Exception e) {
+            log.error("Error creating the missing-explanation index", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.shutdown();
+        renderPool.shutdown();
+    }
+
+    // Starts a backfill over every package missing an explanation; null when one is already running
+    public Map<String, Object> start() {
+        JobStatus job = new JobStatus();
+        if (!jobs.claim(job)) {
+            return null;
+        }
+        try {
+            job.totalPackages = packagePriorityRepository.countMissingExplanations();
+            jobs.submit(() -> run(job));
+        } catch (Exception e) {
+            log.error("Error starting explanation backfill", e);
+            job.fail(e);
+            jobs.finish(job);
+        }
+        return job.toMap();
+    }
+
+    public Map<String, Object> getStatus(String jobId) {
+        return jobs.getStatus(jobId);
+    }
+
+    private void run(JobStatus job) {
+        try {
+            long id = 0L;
+            while (true) {
+                List<PackageSummary> chunk = packagePriorityRepository.findMissingExplanationsAfter(id, Limit.of(chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                id = chunk.get(chunk.size() - 1).getId();
+
+                // toList() keeps package order; rendering is pure, so any thread may take any row
+                List<Object[]> updates = renderPool.submit(() -> chunk.parallelStream()
+                    .map(pkg -> new Object[]{render(pkg), pkg.getId()})
+                    .toList()).join();
+                int[] rowCounts = transactionTemplate.execute(status ->
+                    jdbcTemplate.batchUpdate(UPDATE_EXPLANATION_SQL, updates));
+                entityCache.invalidatePackages(chunk.stream().map(PackageSummary::getId).toList());
+
+                job.processedPackages += chunk.size();
+                job.updatedPackages += Arrays.stream(rowCounts).filter(rows -> rows > 0).sum();
+                job.lastPackageId = id;
+                job.chunks++;
+            }
+            job.complete();
+            log.info("Explanation backfill {} wrote {} explanations in {} chunks", job.jobId, job.updatedPackages, job.chunks);
+        } catch (Exception e) {
+            log.error("Explanation backfill {} failed after package id {}", job.jobId, job.lastPackageId, e);
+            job.fail(e);
+        } finally {
+            jobs.finish(job);
+        }
+    }
+
+    private String render(PackageSummary pkg) {
+        Integer priority = priorityIndex.priorityOf(pkg.getId());
+        return ExplanationTemplates.render(pkg.getDeliveryType(), pkg.getPickupLocation(), pkg.getDestination(),
+            pkg.getDeliveryTime(), pkg.getEthicalScore(), priority != null ? priority : pkg.getCurrentPriority());
+    }
+
+    private static final class JobStatus extends JobTracker.Job {
+        private volatile long totalPackages;
+        private volatile long processedPackages;
+        private volatile long updatedPackages;
+        private volatile Long lastPackageId;
+        private volatile int chunks;
+
+        private JobStatus() {
+            super(JobTracker.JobState.RUNNING);
+        }
+
+        @Override
+        void describe(Map<String, Object> result) {
+            result.put("totalPackages", totalPackages);
+            result.put("processedPackages", processedPackages);
+            result.put("updatedPackages", updatedPackages);
+            result.put("lastPackageId", lastPackageId);
+            result.put("chunks", chunks);
+        }
+    }
+}
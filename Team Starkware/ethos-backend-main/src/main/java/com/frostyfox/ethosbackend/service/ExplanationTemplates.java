@@ -0,0 +1,124 @@
+package com.frostyfox.ethosbackend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Package explanations, compiled once into literal and field parts per delivery type and
+// score band. Rendering picks the band with one lookup and a few comparisons, then appends
+// the parts into a builder sized from the literal length. Unknown delivery types use the
+// standard wording.
+final class ExplanationTemplates {
+
+    private static final String PRIORITY_SUFFIX =
+        " It is assigned Priority {priority} based on its relative importance compared to other packages.";
+
+    private static final Band[] STANDARD = {
+        band(5.0, "This package from {pickup} to {destination} has an ethical score of {score}" +
+            " and requires priority delivery due to its importance level."),
+        band(3.0, "This package from {pickup} to {destination} has an ethical score of {score}" +
+            " and should be delivered by {deliveryTime} to meet the recipient's needs."),
+        band(Double.NEGATIVE_INFINITY, "This package from {pickup} to {destination} has an ethical score of {score}" +
+            " and can be delivered with standard priority handling.")
+    };
+
+    private static final Map<String, Band[]> BY_DELIVERY_TYPE = Map.of(
+        "MEDICAL_EXPRESS", new Band[]{
+            band(8.0, "This medical package from {pickup} to {destination} contains critical medical supplies" +
+                " with an ethical score of {score}, requiring immediate delivery as delays could cause serious harm to patients."),
+            band(6.0, "This medical package from {pickup} to {destination} contains critical medical supplies" +
+                " with an ethical score of {score}, needing priority delivery to ensure timely medical treatment."),
+            band(Double.NEGATIVE_INFINITY, "This medical package from {pickup} to {destination} contains critical medical supplies" +
+                " with an ethical score of {score}, requiring careful handling and timely delivery for patient care.")
+        },
+        "FOOD_EXPRESS", new Band[]{
+            band(6.0, "This food package traveling from {pickup} to {destination} has an ethical score of {score}" +
+                " and contains perishable items that will spoil if not delivered quickly by {deliveryTime}."),
+            band(Double.NEGATIVE_INFINITY, "This food package traveling from {pickup} to {destination} has an ethical score of {score}" +
+                " and requires timely delivery to maintain food quality for the recipient.")
+        },
+        "ESSENTIAL", new Band[]{
+            band(7.0, "This essential package from {pickup} to {destination} has an ethical score of {score}" +
+                " and contains items that someone urgently needs, requiring priority delivery by {deliveryTime}."),
+            band(Double.NEGATIVE_INFINITY, "This essential package from {pickup} to {destination} has an ethical score of {score}" +
+                " and contains important items needed by the recipient, warranting priority handling.")
+        }
+    );
+
+    private ExplanationTemplates() {
+    }
+
+    static String render(String deliveryType, String pickupLocation, String destination, String deliveryTime,
+                         Double ethicalScore, Integer priority) {
+        Band[] bands = deliveryType != null ? BY_DELIVERY_TYPE.getOrDefault(deliveryType, STANDARD) : STANDARD;
+        double score = ethicalScore != null ? ethicalScore : Double.NEGATIVE_INFINITY;
+        Band band = bands[bands.length - 1];
+        for (Band candidate : bands) {
+            if (score >= candidate.minScore) {
+                band = candidate;
+                break;
+            }
+        }
+
+        StringBuilder explanation = new StringBuilder(band.literalLength + 96);
+        for (Object part : band.parts) {
+            if (part instanceof String literal) {
+                explanation.append(literal);
+            } else {
+                switch ((Field) part) {
+                    case PICKUP -> explanation.append(pickupLocation);
+                    case DESTINATION -> explanation.append(destination);
+                    case DELIVERY_TIME -> explanation.append(deliveryTime);
+                    case SCORE -> explanation.append(ethicalScore);
+                    case PRIORITY -> explanation.append(priority);
+                }
+            }
+        }
+        return explanation.toString();
+    }
+
+    private static Band band(double minScore, String template) {
+        String source = template + PRIORITY_SUFFIX;
+        List<Object> parts = new ArrayList<>();
+        int literalLength = 0;
+        int start = 0;
+        while (start < source.length()) {
+            int open = source.indexOf('{', start);
+            if (open < 0) {
+                parts.add(source.substring(start));
+                literalLength += source.length() - start;
+                break;
+            }
+            if (open > start) {
+                parts.add(source.substring(start, open));
+                literalLength += open - start;
+            }
+            int close = source.indexOf('}', open);
+            parts.add(Field.named(source.substring(open + 1, close)));
+            start = close + 1;
+        }
+        return new Band(minScore, parts.toArray(), literalLength);
+    }
+
+    private enum Field {
+        PICKUP("pickup"), DESTINATION("destination"), DELIVERY_TIME("deliveryTime"), SCORE("score"), PRIORITY("priority");
+
+        private final String placeholder;
+
+        Field(String placeholder) {
+            this.placeholder = placeholder;
+        }
+
+        static Field named(String placeholder) {
+            for (Field field : values()) {
+                if (field.placeholder.equals(placeholder)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unknown explanation placeholder {" + placeholder + "}");
+        }
+    }
+
+    private record Band(double minScore, Object[] parts, int literalLength) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.Location;
+import com.frostyfox.ethosbackend.repository.LocationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Resolves free-text location strings to coordinates through the locations table.
+// Entries are held in memory keyed by normalized name, so a lookup is one hash probe.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class Gazetteer {
+
+    private final LocationRepository locationRepository;
+
+    private final Map<String, Coordinates> byName = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFromDatabase() {
+        try {
+            locationRepository.findAll().forEach(this::index);
+            log.info("Gazetteer loaded: {} locations", byName.size());
+        } catch (Exception e) {
+            log.error("Error loading gazetteer", e);
+        }
+    }
+
+    // Exact match on the normalized name, then on the part before the first comma
+    // ("General Hospital, Emergency Ward" -> "General Hospital"); null when unknown
+    public Coordinates resolve(String location) {
+        if (location == null || location.isBlank()) {
+            return null;
+        }
+        Coordinates coordinates = byName.get(AnalysisCache.normalize(location));
+        if (coordinates == null && location.indexOf(',') > 0) {
+            coordinates = byName.get(AnalysisCache.normalize(location.substring(0, location.indexOf(','))));
+        }
+        return coordinates;
+    }
+
+    // Adds or moves a named location
+    public Location save(Location location) {
+        String normalizedName = AnalysisCache.normalize(location.getName());
+        Location saved = locationRepository.findByNormalizedName(normalizedName).orElseGet(Location::new);
+        saved.setName(location.getName().trim());
+        saved.setNormalizedName(normalizedName);
+        saved.setLatitude(location.getLatitude());
+        saved.setLongitude(location.getLongitude());
+        saved = locationRepository.save(saved);
+        index(saved);
+        return saved;
+    }
+
+    public List<Location> getAll() {
+        return locationRepository.findAllByOrderByNameAsc();
+    }
+
+    public int size() {
+        return byName.size();
+    }
+
+    private void index(Location location) {
+        if (location.getLatitude() != null && location.getLongitude() != null) {
+            byName.put(location.getNormalizedName(), new Coordinates(location.getLatitude(), location.getLongitude()));
+        }
+    }
+
+    public record Coordinates(double latitude, double longitude) {
+    }
+}
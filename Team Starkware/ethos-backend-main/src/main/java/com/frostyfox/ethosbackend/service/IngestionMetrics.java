@@ -0,0 +1,142 @@
+package com.frostyfox.ethosbackend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+// Micrometer meters for the ingestion and assignment path, served under /actuator/metrics
+// and /actuator/prometheus. Each stage of a submission has a timer with a percentile
+// histogram:
+//   ethos.ingestion.stage{stage=analyze}   analysis as seen by the caller, cache hits included
+//   ethos.ingestion.stage{stage=analyzer}  the remote analyzer call on a cache miss
+//   ethos.ingestion.stage{stage=parse}     score and delivery-type extraction
+//   ethos.ingestion.stage{stage=persist}   saving the package row
+//   ethos.ingestion.stage{stage=rank}      ranking into the priority index
+//   ethos.ingestion.stage{stage=assign}    reserving a driver and saving the assignment
+@Component
+public class IngestionMetrics {
+
+    public static final String ANALYZE = "analyze";
+    public static final String ANALYZER = "analyzer";
+    public static final String PARSE = "parse";
+    public static final String PERSIST = "persist";
+    public static final String RANK = "rank";
+    public static final String ASSIGN = "assign";
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> analyzerErrors = new ConcurrentHashMap<>();
+    private final Map<String, Counter> reassignments = new ConcurrentHashMap<>();
+    private final Counter defaultScores;
+    private final AtomicLong unassignedBacklog = new AtomicLong();
+
+    public IngestionMetrics(MeterRegistry registry, DriverLoadRegistry driverLoadRegistry) {
+        this.registry = registry;
+        this.defaultScores = Counter.builder("ethos.analysis.default.score")
+            .description("Analyzer responses without a usable total_score, scored 0.0 instead")
+            .register(registry);
+
+        Gauge.builder("ethos.assignment.unassigned", unassignedBacklog, AtomicLong::get)
+            .description("Packages without a driver, as of the last reconciler run")
+            .register(registry);
+        reassigned("reconciler", 0);
+        reassigned("bulk-job", 0);
+        fleetGauge(driverLoadRegistry, "ethos.drivers", "Drivers in the load registry", DriverLoadView::size);
+        fleetGauge(driverLoadRegistry, "ethos.driver.load.held", "Packages held across all drivers",
+            loads -> sum(loads, true));
+        fleetGauge(driverLoadRegistry, "ethos.driver.load.capacity", "Capacity across all drivers",
+            loads -> sum(loads, false));
+        fleetGauge(driverLoadRegistry, "ethos.driver.load.max.utilization",
+            "Highest held/capacity ratio of any driver", IngestionMetrics::maxUtilization);
+    }
+
+    public <T> T time(String stage, Supplier<T> work) {
+        return stageTimer(stage).record(work);
+    }
+
+    public void time(String stage, Runnable work) {
+        stageTimer(stage).record(work);
+    }
+
+    // A stage run once for a batch of items, e.g. one JDBC batch insert; recorded as that
+    // many equal shares, so the timer's count and total match the per-item path
+    public void timeBatch(String stage, int items, Runnable work) {
+        long start = System.nanoTime();
+        try {
+            work.run();
+        } finally {
+            if (items > 0) {
+                Timer timer = stageTimer(stage);
+                long share = (System.nanoTime() - start) / items;
+                for (int i = 0; i < items; i++) {
+                    timer.record(share, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+    }
+
+    public void analyzerError(Exception e) {
+        analyzerErrors.computeIfAbsent(e.getClass().getSimpleName(), exception -> Counter.builder("ethos.analyzer.errors")
+            .description("Failed analyzer calls")
+            .tag("exception", exception)
+            .register(registry)).increment();
+    }
+
+    public void defaultScore() {
+        defaultScores.increment();
+    }
+
+    // source: reconciler (stragglers the ingest path missed) or bulk-job (force-reinitialize)
+    public void reassigned(String source, long packages) {
+        reassignments.computeIfAbsent(source, key -> Counter.builder("ethos.assignment.reassignments")
+            .description("Packages assigned outside their own submission")
+            .tag("source", key)
+            .register(registry)).increment(packages);
+    }
+
+    public void unassignedBacklog(long packages) {
+        unassignedBacklog.set(packages);
+    }
+
+    private Timer stageTimer(String stage) {
+        return stageTimers.computeIfAbsent(stage, key -> Timer.builder("ethos.ingestion.stage")
+            .description("Time spent in one stage of package ingestion")
+            .tag("stage", key)
+            .publishPercentileHistogram()
+            .register(registry));
+    }
+
+    private void fleetGauge(DriverLoadRegistry driverLoadRegistry, String name, String description,
+                            ToDoubleFunction<DriverLoadView> value) {
+        Gauge.builder(name, driverLoadRegistry, loads -> value.applyAsDouble(loads.snapshot()))
+            .description(description)
+            .register(registry);
+    }
+
+    private static double sum(DriverLoadView loads, boolean held) {
+        long total = 0;
+        for (int i = 0; i < loads.size(); i++) {
+            total += held ? loads.held(i) : loads.capacity(i);
+        }
+        return total;
+    }
+
+    private static double maxUtilization(DriverLoadView loads) {
+        double max = 0.0;
+        for (int i = 0; i < loads.size(); i++) {
+            if (loads.capacity(i) > 0) {
+                max = Math.max(max, (double) loads.held(i) / loads.capacity(i));
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,190 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.AnalysisResult;
+import com.frostyfox.ethosbackend.model.EthosModel;
+import com.frostyfox.ethosbackend.model.PackagePriority;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+// Asynchronous ingestion for POST /api/ethos?async=true. Each submission runs the
+// analyze -> persist -> rank -> assign stages on a virtual thread; admission and the
+// analyzer/writer stages are bounded so bursts queue up instead of exhausting threads.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IngestionPipeline {
+
+    private final EthosService ethosService;
+
+    @Value("${ethos.ingestion.max-pending:1000}")
+    private int maxPending;
+
+    @Value("${ethos.ingestion.analyzer-concurrency:64}")
+    private int analyzerConcurrency;
+
+    @Value("${ethos.ingestion.writer-concurrency:16}")
+    private int writerConcurrency;
+
+    @Value("${ethos.ingestion.retained-statuses:10000}")
+    private int retainedStatuses;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, IngestionStatus> statuses = new ConcurrentHashMap<>();
+    private final Queue<String> finished = new ConcurrentLinkedQueue<>();
+
+    private Semaphore pendingSlots;
+    private Semaphore analyzerSlots;
+    private Semaphore writerSlots;
+
+    @PostConstruct
+    void init() {
+        pendingSlots = new Semaphore(maxPending);
+        analyzerSlots = new Semaphore(analyzerConcurrency);
+        writerSlots = new Semaphore(writerConcurrency);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    // Returns the initial status, or null when the pipeline is full
+    public Map<String, Object> submit(EthosModel ethosModel) {
+        if (!pendingSlots.tryAcquire()) {
+            log.warn("Ingestion pipeline full ({} pending), rejecting submission", maxPending);
+            return null;
+        }
+
+        IngestionStatus status = new IngestionStatus(UUID.randomUUID().toString());
+        statuses.put(status.trackingId, status);
+        try {
+            executor.submit(() -> process(status, ethosModel));
+        } catch (Exception e) {
+            pendingSlots.release();
+            statuses.remove(status.trackingId);
+            throw e;
+        }
+        return status.toMap();
+    }
+
+    public Map<String, Object> getStatus(String trackingId) {
+        IngestionStatus status = statuses.get(trackingId);
+        return status != null ? status.toMap() : null;
+    }
+
+    private void process(IngestionStatus status, EthosModel ethosModel) {
+        try {
+            status.moveTo(Stage.ANALYZING);
+            AnalysisResult analysis = withSlot(analyzerSlots, () -> ethosService.analyze(ethosModel));
+
+            status.moveTo(Stage.PERSISTING);
+            PackagePriority pkg = withSlot(writerSlots, () -> ethosService.persistPackage(ethosModel, analysis));
+
+            status.moveTo(Stage.RANKING);
+            ethosService.rankPackage(pkg);
+
+            status.moveTo(Stage.ASSIGNING);
+            withSlot(writerSlots, () -> {
+                ethosService.assignPackage(pkg);
+                return null;
+            });
+
+            status.complete(pkg);
+            log.info("Async ingestion {} completed: package {} at priority {}",
+                status.trackingId, pkg.getPackageId(), pkg.getCurrentPriority());
+        } catch (Exception e) {
+            log.error("Async ingestion {} failed in stage {}", status.trackingId, status.stage, e);
+            status.fail(e);
+        } finally {
+            pendingSlots.release();
+            retire(status.trackingId);
+        }
+    }
+
+    private <T> T withSlot(Semaphore slots, Callable<T> work) throws Exception {
+        slots.acquire();
+        try {
+            return work.call();
+        } finally {
+            slots.release();
+        }
+    }
+
+    // Keeps only the most recent finished statuses so the map stays bounded
+    private void retire(String trackingId) {
+        finished.add(trackingId);
+        while (finished.size() > retainedStatuses) {
+            String oldest = finished.poll();
+            if (oldest != null) {
+                statuses.remove(oldest);
+            }
+        }
+    }
+
+    enum Stage {
+        QUEUED, ANALYZING, PERSISTING, RANKING, ASSIGNING, COMPLETED, FAILED
+    }
+
+    private static final class IngestionStatus {
+        private final String trackingId;
+        private final String submittedAt = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        private volatile Stage stage = Stage.QUEUED;
+        private volatile Long packageDbId;
+        private volatile String packageId;
+        private volatile Integer priority;
+        private volatile String error;
+        private volatile String finishedAt;
+
+        private IngestionStatus(String trackingId) {
+            this.trackingId = trackingId;
+        }
+
+        private void moveTo(Stage next) {
+            stage = next;
+        }
+
+        private void complete(PackagePriority pkg) {
+            packageDbId = pkg.getId();
+            packageId = pkg.getPackageId();
+            priority = pkg.getCurrentPriority();
+            finishedAt = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            stage = Stage.COMPLETED;
+        }
+
+        private void fail(Exception e) {
+            error = "Failed during " + stage + ": " + e.getMessage();
+            finishedAt = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            stage = Stage.FAILED;
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("trackingId", trackingId);
+            result.put("status", stage.name());
+            result.put("submittedAt", submittedAt);
+            result.put("finishedAt", finishedAt);
+            result.put("id", packageDbId);
+            result.put("packageId", packageId);
+            result.put("currentPriority", priority);
+            result.put("error", error);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.frostyfox.ethosbackend.service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Bookkeeping shared by the background jobs (bulk reassignment, explanation backfill): one
+// job runs at a time on its own virtual thread, statuses are kept by job id, and the last
+// retained-jobs finished jobs stay queryable after they end.
+final class JobTracker<J extends JobTracker.Job> {
+
+    private final int retainedJobs;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(Thread.ofVirtual().factory());
+    private final Map<String, J> jobs = new ConcurrentHashMap<>();
+    private final Queue<String> finished = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<J> running = new AtomicReference<>();
+
+    JobTracker(int retainedJobs) {
+        this.retainedJobs = retainedJobs;
+    }
+
+    // Pool for a job's parallel work; parallelism 0 means one thread per CPU
+    static ForkJoinPool newPool(int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    // Takes the single job slot; false when another job is running
+    boolean claim(J job) {
+        if (!running.compareAndSet(null, job)) {
+            return false;
+        }
+        jobs.put(job.jobId, job);
+        return true;
+    }
+
+    J running() {
+        return running.get();
+    }
+
+    boolean isRunning() {
+        return running.get() != null;
+    }
+
+    void submit(Runnable work) {
+        runner.submit(work);
+    }
+
+    // Frees the slot; the job's final status is kept until retained-jobs newer jobs finish
+    void finish(J job) {
+        running.compareAndSet(job, null);
+        finished.add(job.jobId);
+        while (finished.size() > retainedJobs) {
+            String oldest = finished.poll();
+            if (oldest != null) {
+                jobs.remove(oldest);
+            }
+        }
+    }
+
+    Map<String, Object> getStatus(String jobId) {
+        J job = jobs.get(jobId);
+        return job != null ? job.toMap() : null;
+    }
+
+    void shutdown() {
+        runner.shutdownNow();
+    }
+
+    enum JobState {
+        PREPARING, RUNNING, COMPLETED, FAILED
+    }
+
+    abstract static class Job {
+        final String jobId = UUID.randomUUID().toString();
+        private final String startedAt = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        private final long startNanos = System.nanoTime();
+        volatile JobState state;
+        private volatile String error;
+        private volatile String finishedAt;
+        private volatile Long elapsedMs;
+
+        Job(JobState state) {
+            this.state = state;
+        }
+
+        void complete() {
+            finishedAt = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+            state = JobState.COMPLETED;
+        }
+
+        void fail(Exception e) {
+            error = e.getMessage();
+            finishedAt = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+            state = JobState.FAILED;
+        }
+
+        // The job's own progress fields, placed between status and the timing fields
+        abstract void describe(Map<String, Object> result);
+
+        Map<String, Object> toMap() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("jobId", jobId);
+            result.put("status", state.name());
+            describe(result);
+            result.put("startedAt", startedAt);
+            result.put("finishedAt", finishedAt);
+            result.put("elapsedMs", elapsedMs);
+            result.put("error", error);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.PackagePriority;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Sends each package to the nearest driver with spare capacity, measured from its pickup
+// location as resolved by the gazetteer. Route affinity comes first, as in capacity-aware
+// assignment: the nearest driver whose route serves the delivery type wins, and only when
+// none is in range the nearest driver with room. Packages whose pickup is unknown, or
+// with no positioned driver in range, fall back to capacity-aware assignment.
+@Component
+@RequiredArgsConstructor
+public class NearestDriverAssignmentStrategy implements AssignmentStrategy {
+
+    private final Gazetteer gazetteer;
+    private final DriverSpatialIndex driverSpatialIndex;
+    private final CapacityAwareAssignmentStrategy capacityAwareStrategy;
+
+    @Override
+    public String getName() {
+        return "nearest";
+    }
+
+    @Override
+    public int[] assignAll(DriverLoadView drivers, List<PackagePriority> packages) {
+        int[] held = new int[drivers.size()];
+        for (int i = 0; i < held.length; i++) {
+            held[i] = drivers.held(i);
+        }
+        DriverLoadView current = withHeld(drivers, held);
+
+        // Located packages claim their nearest driver in priority order; the rest are
+        // bin-packed into the capacity left over
+        int[] choices = new int[packages.size()];
+        List<Integer> unplaced = new ArrayList<>();
+        for (int p = 0; p < choices.length; p++) {
+            int chosen = nearest(current, packages.get(p));
+            if (chosen >= 0) {
+                held[chosen]++;
+                choices[p] = chosen;
+            } else {
+                unplaced.add(p);
+            }
+        }
+
+        if (!unplaced.isEmpty()) {
+            List<PackagePriority> rest = new ArrayList<>(unplaced.size());
+            unplaced.forEach(p -> rest.add(packages.get(p)));
+            int[] restChoices = capacityAwareStrategy.assignAll(current, rest);
+            for (int i = 0; i < restChoices.length; i++) {
+                choices[unplaced.get(i)] = restChoices[i];
+            }
+        }
+        return choices;
+    }
+
+    @Override
+    public int assignOne(DriverLoadView drivers, PackagePriority pkg) {
+        int chosen = nearest(drivers, pkg);
+        return chosen >= 0 ? chosen : capacityAwareStrategy.assignOne(drivers, pkg);
+    }
+
+    private int nearest(DriverLoadView drivers, PackagePriority pkg) {
+        Gazetteer.Coordinates pickup = gazetteer.resolve(pkg.getPickupLocation());
+        if (pickup == null) {
+            return -1;
+        }
+        String keyword = CapacityAwareAssignmentStrategy.keywordFor(pkg.getDeliveryType());
+        Long driverId = driverSpatialIndex.nearest(pickup.latitude(), pickup.longitude(), id -> {
+            int position = drivers.positionOf(id);
+            return hasRoom(drivers, position)
+                && CapacityAwareAssignmentStrategy.routeKeywords(drivers.route(position)).contains(keyword);
+        });
+        if (driverId == null) {
+            driverId = driverSpatialIndex.nearest(pickup.latitude(), pickup.longitude(),
+                id -> hasRoom(drivers, drivers.positionOf(id)));
+        }
+        return driverId != null ? drivers.positionOf(driverId) : -1;
+    }
+
+    private static boolean hasRoom(DriverLoadView drivers, int position) {
+        return position >= 0 && drivers.held(position) < drivers.capacity(position);
+    }
+
+    private static DriverLoadView withHeld(DriverLoadView drivers, int[] held) {
+        return new DriverLoadView() {
+            @Override
+            public int size() {
+                return drivers.size();
+            }
+
+            @Override
+            public Long driverId(int position) {
+                return drivers.driverId(position);
+            }
+
+            @Override
+            public String driverName(int position) {
+                return drivers.driverName(position);
+            }
+
+            @Override
+            public String route(int position) {
+                return drivers.route(position);
+            }
+
+            @Override
+            public int held(int position) {
+                return held[position];
+            }
+
+            @Override
+            public int capacity(int position) {
+                return drivers.capacity(position);
+            }
+
+            @Override
+            public int positionOf(Long driverId) {
+                return drivers.positionOf(driverId);
+            }
+        };
+    }
+}
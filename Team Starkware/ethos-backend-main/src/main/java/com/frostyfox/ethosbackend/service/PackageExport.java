@@ -0,0 +1,382 @@
+package com.frostyfox.ethosbackend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+// Streaming exports behind GET /api/packages/export and /api/distribution/assignments/export.
+// Rows are read through a Postgres cursor (a read-only transaction with a fetch size) and
+// written to the response one at a time as CSV or NDJSON, optionally gzipped, so memory use
+// does not grow with the table. Packages come out in priority order. A priority range is
+// turned into (score, id) bounds on that order through PriorityIndex, so it uses the score
+// index and matches the live priorities; currentPriority is the live rank as well. As in
+// the re-rank, a package without a score ranks as 0.
+@Component
+@Slf4j
+public class PackageExport {
+
+    // Same expression as the keyset queries and their indexes
+    private static final String SCORE_KEY = "COALESCE(p.ethical_score, 0.0)";
+
+    private static final List<Column> PACKAGE_COLUMNS = List.of(
+        new Column("id", "p.id"),
+        new Column("packageId", "p.package_id"),
+        new Column("currentPriority", "p.current_priority"),
+        new Column("deliveryType", "p.delivery_type"),
+        new Column("pickupLocation", "p.pickup_location"),
+        new Column("destination", "p.destination"),
+        new Column("deliveryTime", "p.delivery_time"),
+        new Column("ethicalScore", "p.ethical_score"),
+        new Column("assignedDriver", "p.assigned_driver"),
+        new Column("scoreInherited", "p.score_inherited"),
+        new Column("inheritedFromPackageId", "p.inherited_from_package_id"),
+        new Column("createdAt", "p.created_at"));
+
+    private static final List<Column> ASSIGNMENT_COLUMNS = List.of(
+        new Column("assignmentId", "a.id"),
+        new Column("driverId", "a.driver_id"),
+        new Column("driverName", "d.driver_name"),
+        new Column("id", "p.id"),
+        new Column("packageId", "a.package_id"),
+        new Column("state", "a.state"),
+        new Column("assignedAt", "a.assigned_at"),
+        new Column("deliveryType", "p.delivery_type"),
+        new Column("ethicalScore", "p.ethical_score"),
+        new Column("currentPriority", "p.current_priority"));
+
+    private final PriorityIndex priorityIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JsonMapper jsonMapper;
+    private final int fetchSize;
+    private final Semaphore exportSlots;
+
+    public PackageExport(PriorityIndex priorityIndex,
+                         JdbcTemplate jdbcTemplate,
+                         TransactionTemplate transactionTemplate,
+                         JsonMapper jsonMapper,
+                         @Value("${ethos.export.fetch-size:1000}") int fetchSize,
+                         @Value("${ethos.export.max-concurrent:4}") int maxConcurrent) {
+        this.priorityIndex = priorityIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jsonMapper = jsonMapper;
+        this.fetchSize = fetchSize;
+        this.exportSlots = new Semaphore(maxConcurrent);
+    }
+
+    public enum Format {
+        CSV, NDJSON;
+
+        // Null for anything but csv or ndjson
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+
+    // Export filters; null fields are not applied. createdTo is exclusive.
+    public record Filter(Integer minPriority, Integer maxPriority, String deliveryType,
+                         String createdFrom, String createdTo, Long driverId) {
+    }
+
+    // Priorities start at 1 and the range must not be inverted; dates must be ISO dates or date-times
+    public boolean isValid(Filter filter) {
+        if ((filter.minPriority() != null && filter.minPriority() < 1)
+                || (filter.maxPriority() != null && filter.maxPriority() < 1)) {
+            return false;
+        }
+        if (filter.minPriority() != null && filter.maxPriority() != null && filter.maxPriority() < filter.minPriority()) {
+            return false;
+        }
+        return (filter.createdFrom() == null || toTimestamp(filter.createdFrom()) != null)
+            && (filter.createdTo() == null || toTimestamp(filter.createdTo()) != null);
+    }
+
+    // Null when max-concurrent exports are already running
+    public StreamingResponseBody exportPackages(Filter filter, Format format, boolean gzip) {
+        Query query = new Query("SELECT " + select(PACKAGE_COLUMNS) + " FROM package_priorities p");
+        query.filter(filter, priorityIndex);
+        query.sql.append(" ORDER BY " + SCORE_KEY + " DESC, p.id ASC");
+        return stream("packages", PACKAGE_COLUMNS, query, format, gzip);
+    }
+
+    public StreamingResponseBody exportAssignments(Filter filter, Format format, boolean gzip) {
+        Query query = new Query("SELECT " + select(ASSIGNMENT_COLUMNS) + " FROM driver_assignments a " +
+            "LEFT JOIN package_priorities p ON p.id = a.package_priority_id " +
+            "LEFT JOIN drivers d ON d.id = a.driver_id");
+        query.filter(filter, priorityIndex);
+        if (filter.driverId() != null) {
+            query.where("a.driver_id = ?", filter.driverId());
+        }
+        query.sql.append(" ORDER BY a.id ASC");
+        return stream("assignments", ASSIGNMENT_COLUMNS, query, format, gzip);
+    }
+
+    private StreamingResponseBody stream(String name, List<Column> columns, Query query, Format format, boolean gzip) {
+        if (!exportSlots.tryAcquire()) {
+            return null;
+        }
+        Slot slot = new Slot();
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            WebAsyncUtils.getAsyncManager(attributes.getRequest()).registerCallableInterceptor(Slot.class, slot);
+        }
+        return out -> {
+            long start = System.nanoTime();
+            try {
+                GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, 8192) : null;
+                Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    compressed != null ? compressed : out, StandardCharsets.UTF_8), 65536);
+                RowWriter rows = format == Format.CSV ? new CsvRowWriter(writer, columns) : new NdjsonRowWriter(writer, columns);
+                long count = write(columns, query, rows);
+                writer.flush();
+                if (compressed != null) {
+                    compressed.finish();
+                }
+                log.info("Exported {} {} rows as {} in {} ms", count, name, format,
+                    (System.nanoTime() - start) / 1_000_000);
+            } catch (UncheckedIOException e) {
+                // The client went away mid-export
+                log.warn("Export of {} aborted: {}", name, e.getCause().getMessage());
+            } catch (RuntimeException e) {
+                log.error("Export of {} failed", name, e);
+                throw e;
+            } finally {
+                slot.release();
+            }
+        };
+    }
+
+    private long write(List<Column> columns, Query query, RowWriter rows) {
+        int idColumn = indexOf(columns, "id");
+        int priorityColumn = indexOf(columns, "currentPriority");
+        long[] count = {0};
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            // Postgres only streams with a fetch size inside a transaction
+            PreparedStatement ps = connection.prepareStatement(query.sql.toString());
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < query.args.size(); i++) {
+                ps.setObject(i + 1, query.args.get(i));
+            }
+            return ps;
+        }, (ResultSet rs) -> {
+            Object[] values = new Object[columns.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rs.getObject(i + 1);
+            }
+            if (values[idColumn] instanceof Number id) {
+                Integer live = priorityIndex.priorityOf(id.longValue());
+                if (live != null) {
+                    values[priorityColumn] = live;
+                }
+            }
+            try {
+                rows.write(values);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count[0]++;
+        }));
+        return count[0];
+    }
+
+    // Download headers: packages.csv, assignments.ndjson, ...; gzip is sent as Content-Encoding
+    public static HttpHeaders headers(String name, Format format, boolean gzip) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(format == Format.CSV ?
+            new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON);
+        headers.setContentDisposition(ContentDisposition.attachment()
+            .filename(name + "." + format.name().toLowerCase(Locale.ROOT)).build());
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return headers;
+    }
+
+    private static String select(List<Column> columns) {
+        return String.join(", ", columns.stream().map(Column::sql).toList());
+    }
+
+    private static int indexOf(List<Column> columns, String name) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).name().equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No column " + name);
+    }
+
+    // ISO date (start of day) or date-time in the stored created_at format; null when neither
+    static String toTimestamp(String value) {
+        try {
+            LocalDateTime time = value.length() <= 10 ?
+                LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+            return time.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private record Column(String name, String sql) {
+    }
+
+    // A taken export slot, released once: by the body when it ends, or when the request's
+    // async processing completes, which also covers a timeout or error before the body ran
+    private final class Slot implements CallableProcessingInterceptor {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                exportSlots.release();
+            }
+        }
+
+        @Override
+        public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+            release();
+        }
+    }
+
+    private static final class Query {
+        private final StringBuilder sql;
+        private final List<Object> args = new ArrayList<>();
+        private boolean hasWhere;
+
+        private Query(String select) {
+            this.sql = new StringBuilder(select);
+        }
+
+        private void where(String condition, Object... values) {
+            sql.append(hasWhere ? " AND " : " WHERE ").append(condition);
+            hasWhere = true;
+            args.addAll(List.of(values));
+        }
+
+        private void filter(Filter filter, PriorityIndex priorityIndex) {
+            if (filter.deliveryType() != null && !filter.deliveryType().isBlank()) {
+                where("p.delivery_type = ?", filter.deliveryType().trim().toUpperCase(Locale.ROOT));
+            }
+            // created_at is an ISO-8601 string, so string comparison is chronological
+            if (filter.createdFrom() != null) {
+                where("p.created_at >= ?", toTimestamp(filter.createdFrom()));
+            }
+            if (filter.createdTo() != null) {
+                where("p.created_at < ?", toTimestamp(filter.createdTo()));
+            }
+            // Priorities are ranks in (score DESC, id ASC), so a range is the stretch between two packages
+            if (filter.minPriority() != null && filter.minPriority() > 1) {
+                Long first = priorityIndex.idAtPriority(filter.minPriority());
+                Double score = first != null ? priorityIndex.scoreOf(first) : null;
+                if (score == null) {
+                    where("FALSE");
+                } else {
+                    where("(" + SCORE_KEY + " < ? OR (" + SCORE_KEY + " = ? AND p.id >= ?))", score, score, first);
+                }
+            }
+            if (filter.maxPriority() != null) {
+                Long last = priorityIndex.idAtPriority(filter.maxPriority());
+                Double score = last != null ? priorityIndex.scoreOf(last) : null;
+                if (score != null) {
+                    where("(" + SCORE_KEY + " > ? OR (" + SCORE_KEY + " = ? AND p.id <= ?))", score, score, last);
+                }
+            }
+        }
+    }
+
+    private interface RowWriter {
+        void write(Object[] values) throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvRowWriter(Writer writer, List<Column> columns) throws IOException {
+            this.writer = writer;
+            writer.write(String.join(",", columns.stream().map(Column::name).toList()));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writer.write(escape(values[i].toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        // RFC 4180: quote fields holding a separator, quote or line break, doubling inner quotes
+        private static String escape(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    return '"' + value.replace("\"", "\"\"") + '"';
+                }
+            }
+            return value;
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private final List<Column> columns;
+
+        private NdjsonRowWriter(Writer writer, List<Column> columns) {
+            this.writer = writer;
+            this.columns = columns;
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < values.length; i++) {
+                row.put(columns.get(i).name(), values[i]);
+            }
+            writer.write(jsonMapper.writeValueAsString(row));
+            writer.write('\n');
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.repository.DriverAssignmentRepository;
+import com.frostyfox.ethosbackend.repository.PackagePriorityRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Snowflake-style package IDs: 41 bits of milliseconds since 2025-01-01, 10 bits of node
+// id and 12 bits of sequence, so IDs sort by creation time and instances with distinct
+// ethos.package-id.node-id never collide. The last (millisecond, sequence) pair lives in
+// one AtomicLong and each ID is a single CAS on it. When the sequence runs out, or the
+// clock steps back, the generator runs ahead of the clock instead of waiting; it catches
+// up once the rate drops below 4096 IDs per millisecond. Because of that, a restart starts
+// after the largest ID already stored rather than from the clock alone.
+@Component
+@Slf4j
+public class PackageIdGenerator {
+
+    static final long EPOCH_MILLIS = 1735689600000L; // 2025-01-01T00:00:00Z
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final String UNIQUE_INDEX_SQL =
+        "CREATE UNIQUE INDEX IF NOT EXISTS uk_package_priorities_package_id ON package_priorities (package_id)";
+
+    private final PackagePriorityRepository packagePriorityRepository;
+    private final DriverAssignmentRepository driverAssignmentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long nodeBits;
+
+    // (milliseconds since epoch << SEQUENCE_BITS) | sequence of the last ID handed out
+    private final AtomicLong last = new AtomicLong();
+
+    public PackageIdGenerator(PackagePriorityRepository packagePriorityRepository,
+                              DriverAssignmentRepository driverAssignmentRepository,
+                              JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${ethos.package-id.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("ethos.package-id.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.packagePriorityRepository = packagePriorityRepository;
+        this.driverAssignmentRepository = driverAssignmentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+    }
+
+    // Runs before any ID is handed out; without it, IDs issued ahead of the clock just
+    // before a restart could be issued again
+    @PostConstruct
+    public void seedFromDatabase() {
+        try {
+            Long max = packagePriorityRepository.findMaxPackageNumber();
+            if (max != null) {
+                seed(max);
+            }
+        } catch (Exception e) {
+            log.error("Error seeding package IDs from the database", e);
+        }
+    }
+
+    // Continues after the given ID if it is ahead of the last one issued
+    void seed(long id) {
+        long stamp = ((id >>> (NODE_BITS + SEQUENCE_BITS)) << SEQUENCE_BITS) | (id & SEQUENCE_MASK);
+        last.accumulateAndGet(stamp, Math::max);
+    }
+
+    // IDs issued before this generator could collide; suffix the later duplicates with
+    // their row id, then build the unique index. The index is not declared on the entity,
+    // where schema update would try to build it before the duplicates are renamed.
+    // Assignments are linked to their package rows before the rename and relabelled with
+    // it, in one transaction, so each keeps its own package.
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureUniquePackageIds() {
+        try {
+            Integer renamed = transactionTemplate.execute(status -> {
+                driverAssignmentRepository.linkPackageRows();
+                int count = packagePriorityRepository.dedupePackageIds();
+                driverAssignmentRepository.syncPackageIds();
+                return count;
+            });
+            if (renamed != null && renamed > 0) {
+                log.warn("Renamed {} duplicate package IDs", renamed);
+            }
+            jdbcTemplate.execute(UNIQUE_INDEX_SQL);
+        } catch (Exception e) {
+            log.error("Error enforcing unique package IDs", e);
+        }
+    }
+
+    public String nextPackageId() {
+        return "PKG-" + nextId();
+    }
+
+    public long nextId() {
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long stamp = last.updateAndGet(previous -> Math.max(now, previous + 1));
+        return ((stamp >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (stamp & SEQUENCE_MASK);
+    }
+
+    static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    static long nodeOf(long id) {
+        return (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+}
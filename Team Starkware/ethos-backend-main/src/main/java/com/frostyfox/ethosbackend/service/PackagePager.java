@@ -0,0 +1,125 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.PackageSummary;
+import com.frostyfox.ethosbackend.repository.PackagePriorityRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Keyset pagination over (ethicalScore DESC, id ASC). The cursor is an opaque
+// base64url "score:id" of the last row returned, so each page is an index range scan
+// no matter how deep the caller pages.
+@Component
+@RequiredArgsConstructor
+public class PackagePager {
+
+    private static final Set<String> TEXT_FIELDS = Set.of("explanation", "pythonResponse");
+
+    private final PackagePriorityRepository packagePriorityRepository;
+    private final PriorityIndex priorityIndex;
+
+    @Value("${ethos.paging.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${ethos.paging.max-limit:500}")
+    private int maxLimit;
+
+    @FunctionalInterface
+    public interface KeysetQuery {
+        List<PackageSummary> fetch(Double score, Long id, Limit limit);
+    }
+
+    // Returns {items, nextCursor, limit}, or null when the cursor or fields are invalid
+    public Map<String, Object> page(String cursor, Integer limit, String fields, KeysetQuery query) {
+        Cursor position = cursor == null || cursor.isBlank() ? Cursor.START : Cursor.decode(cursor);
+        Set<String> textFields = parseFields(fields);
+        if (position == null || textFields == null) {
+            return null;
+        }
+
+        int pageSize = Math.max(1, Math.min(limit != null ? limit : defaultLimit, maxLimit));
+        List<PackageSummary> items = query.fetch(position.score, position.id, Limit.of(pageSize));
+
+        items.forEach(item -> {
+            Integer priority = priorityIndex.priorityOf(item.getId());
+            if (priority != null) {
+                item.setCurrentPriority(priority);
+            }
+        });
+        if (!textFields.isEmpty() && !items.isEmpty()) {
+            fillTextFields(items, textFields);
+        }
+
+        String nextCursor = null;
+        if (items.size() == pageSize) {
+            PackageSummary last = items.get(items.size() - 1);
+            nextCursor = new Cursor(last.getEthicalScore(), last.getId()).encode();
+        }
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("items", items);
+        page.put("nextCursor", nextCursor);
+        page.put("limit", pageSize);
+        return page;
+    }
+
+    private void fillTextFields(List<PackageSummary> items, Set<String> textFields) {
+        Map<Long, PackageSummary> byId = new LinkedHashMap<>();
+        items.forEach(item -> byId.put(item.getId(), item));
+        for (PackagePriorityRepository.TextView text : packagePriorityRepository.findTextsByIdIn(byId.keySet())) {
+            PackageSummary item = byId.get(text.getId());
+            if (textFields.contains("explanation")) {
+                item.setExplanation(text.getExplanation());
+            }
+            if (textFields.contains("pythonResponse")) {
+                item.setPythonResponse(text.getPythonResponse());
+            }
+        }
+    }
+
+    private static Set<String> parseFields(String fields) {
+        Set<String> requested = new HashSet<>();
+        if (fields == null || fields.isBlank()) {
+            return requested;
+        }
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!TEXT_FIELDS.contains(name)) {
+                return null;
+            }
+            requested.add(name);
+        }
+        return requested;
+    }
+
+    private record Cursor(Double score, Long id) {
+
+        // Sorts ahead of every scored row
+        private static final Cursor START = new Cursor(Double.MAX_VALUE, 0L);
+
+        private String encode() {
+            String raw = (score != null ? score : 0.0) + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf(':');
+                return new Cursor(Double.parseDouble(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.PackagePriority;
+import com.frostyfox.ethosbackend.repository.PackagePriorityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+// Running package counters behind /api/packages/stats and /api/distribution/stats.
+// Seeded at startup from one GROUP BY over the table, then updated on every insert,
+// so the stats endpoints never scan package rows. Inserts recorded before the seed
+// query finishes are held back and only those above the query's id cutoff are added,
+// so no package is counted twice.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PackageStatsAggregator {
+
+    private final PackagePriorityRepository packagePriorityRepository;
+
+    private final LongAdder totalPackages = new LongAdder();
+    private final LongAdder analyzedPackages = new LongAdder();
+    private final DoubleAdder ethicalScoreSum = new DoubleAdder();
+    private final LongAdder[] tierCounts = {new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder()};
+    private final Map<String, LongAdder> deliveryTypeCounts = new ConcurrentHashMap<>();
+
+    private final Object loadLock = new Object();
+    private List<PackagePriority> recordedBeforeLoad = new ArrayList<>();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFromDatabase() {
+        long cutoff = 0;
+        try {
+            Long maxId = packagePriorityRepository.findMaxId();
+            cutoff = maxId != null ? maxId : 0;
+            for (PackagePriorityRepository.StatsView row : packagePriorityRepository.aggregateStats(cutoff)) {
+                long packages = row.getPackages();
+                totalPackages.add(packages);
+                analyzedPackages.add(row.getAnalyzed() != null ? row.getAnalyzed() : 0);
+                ethicalScoreSum.add(row.getScoreSum() != null ? row.getScoreSum() : 0.0);
+                tierCounts[row.getTier() - 1].add(packages);
+                deliveryTypeCounts.computeIfAbsent(String.valueOf(row.getDeliveryType()), key -> new LongAdder())
+                    .add(packages);
+            }
+            log.info("Package stats loaded: {} packages", totalPackages.sum());
+        } catch (Exception e) {
+            log.error("Error loading package stats", e);
+        } finally {
+            synchronized (loadLock) {
+                for (PackagePriority pkg : recordedBeforeLoad) {
+                    if (pkg.getId() == null || pkg.getId() > cutoff) {
+                        add(pkg);
+                    }
+                }
+                recordedBeforeLoad = null;
+                loaded = true;
+            }
+        }
+    }
+
+    public void recordPackage(PackagePriority pkg) {
+        if (!loaded) {
+            synchronized (loadLock) {
+                if (!loaded) {
+                    recordedBeforeLoad.add(pkg);
+                    return;
+                }
+            }
+        }
+        add(pkg);
+    }
+
+    private void add(PackagePriority pkg) {
+        double score = pkg.getEthicalScore() != null ? pkg.getEthicalScore() : 0.0;
+        totalPackages.increment();
+        if (pkg.getPythonResponse() != null) {
+            analyzedPackages.increment();
+        }
+        ethicalScoreSum.add(score);
+        tierCounts[EthosService.calculatePriority(score) - 1].increment();
+        deliveryTypeCounts.computeIfAbsent(String.valueOf(pkg.getDeliveryType()), key -> new LongAdder())
+            .increment();
+    }
+
+    public long getTotalPackages() {
+        return totalPackages.sum();
+    }
+
+    public long getAnalyzedPackages() {
+        return analyzedPackages.sum();
+    }
+
+    public double getAverageEthicalScore() {
+        long total = totalPackages.sum();
+        return total > 0 ? ethicalScoreSum.sum() / total : 0.0;
+    }
+
+    // Package counts per priority tier (1 = critical ... 4 = low) from the ethical score ranges
+    public Map<Integer, Long> getTierDistribution() {
+        Map<Integer, Long> distribution = new TreeMap<>();
+        for (int tier = 1; tier <= tierCounts.length; tier++) {
+            long count = tierCounts[tier - 1].sum();
+            if (count > 0) {
+                distribution.put(tier, count);
+            }
+        }
+        return distribution;
+    }
+
+    public Map<String, Long> getDeliveryTypeDistribution() {
+        Map<String, Long> distribution = new TreeMap<>();
+        deliveryTypeCounts.forEach((type, count) -> distribution.put(type, count.sum()));
+        return distribution;
+    }
+}
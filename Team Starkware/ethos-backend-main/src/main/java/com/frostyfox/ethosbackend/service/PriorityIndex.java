@@ -0,0 +1,264 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.PackagePriority;
+import com.frostyfox.ethosbackend.repository.PackagePriorityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Order-statistic index over (ethicalScore DESC, id ASC). Priority of a package is its
+// 1-based rank in that order, so inserting a package is O(log n) and priorities are
+// derived on read instead of being rewritten across the whole table.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PriorityIndex {
+
+    private final PackagePriorityRepository packagePriorityRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Double> scores = new HashMap<>();
+    private Node root;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFromDatabase() {
+        try {
+            List<PackagePriorityRepository.ScoreView> rows = packagePriorityRepository.findAllScores();
+            rebuild(rows);
+            log.info("Priority index loaded with {} packages", rows.size());
+        } catch (Exception e) {
+            log.error("Error loading priority index", e);
+        }
+    }
+
+    public void rebuild(Collection<PackagePriorityRepository.ScoreView> rows) {
+        lock.writeLock().lock();
+        try {
+            scores.clear();
+            root = null;
+            for (PackagePriorityRepository.ScoreView row : rows) {
+                insertLocked(row.getId(), row.getEthicalScore());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Adds (or re-scores) a package and returns its new priority
+    public int add(Long id, Double ethicalScore) {
+        lock.writeLock().lock();
+        try {
+            insertLocked(id, ethicalScore);
+            return countBefore(root, normalize(ethicalScore), id) + 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Adds many packages under one lock, e.g. a batch ingest ranked once at the end
+    public void addAll(Map<Long, Double> scoresById) {
+        lock.writeLock().lock();
+        try {
+            scoresById.forEach(this::insertLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Double score = scores.remove(id);
+            if (score != null) {
+                root = delete(root, score, id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Integer priorityOf(Long id) {
+        lock.readLock().lock();
+        try {
+            Double score = scores.get(id);
+            return score == null ? null : countBefore(root, score, id) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Score the package is ranked by (null counts as 0.0), or null when it is not indexed
+    public Double scoreOf(Long id) {
+        lock.readLock().lock();
+        try {
+            return scores.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Package id holding the given priority, or null when out of range
+    public Long idAtPriority(int priority) {
+        lock.readLock().lock();
+        try {
+            if (priority < 1 || priority > size(root)) {
+                return null;
+            }
+            Node node = root;
+            int k = priority - 1;
+            while (node != null) {
+                int leftSize = size(node.left);
+                if (k < leftSize) {
+                    node = node.left;
+                } else if (k == leftSize) {
+                    return node.id;
+                } else {
+                    k -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Overwrites the persisted currentPriority snapshot with the live rank
+    public void applyTo(PackagePriority pkg) {
+        if (pkg == null || pkg.getId() == null) {
+            return;
+        }
+        Integer priority = priorityOf(pkg.getId());
+        if (priority != null) {
+            pkg.setCurrentPriority(priority);
+        }
+    }
+
+    public void applyTo(Collection<PackagePriority> packages) {
+        packages.forEach(this::applyTo);
+    }
+
+    private void insertLocked(Long id, Double ethicalScore) {
+        double score = normalize(ethicalScore);
+        Double previous = scores.put(id, score);
+        if (previous != null) {
+            root = delete(root, previous, id);
+        }
+        Node[] parts = split(root, score, id);
+        root = merge(merge(parts[0], new Node(id, score)), parts[1]);
+    }
+
+    private static double normalize(Double ethicalScore) {
+        return ethicalScore != null ? ethicalScore : 0.0;
+    }
+
+    // Negative when (scoreA, idA) ranks ahead of (scoreB, idB)
+    private static int compare(double scoreA, long idA, double scoreB, long idB) {
+        int byScore = Double.compare(scoreB, scoreA);
+        return byScore != 0 ? byScore : Long.compare(idA, idB);
+    }
+
+    private static int countBefore(Node node, double score, long id) {
+        int count = 0;
+        while (node != null) {
+            if (compare(node.score, node.id, score, id) < 0) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    // Splits into keys ranking ahead of (score, id) and the rest
+    private static Node[] split(Node node, double score, long id) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (compare(node.score, node.id, score, id) < 0) {
+            Node[] parts = split(node.right, score, id);
+            node.right = parts[0];
+            node.update();
+            return new Node[]{node, parts[1]};
+        }
+        Node[] parts = split(node.left, score, id);
+        node.left = parts[1];
+        node.update();
+        return new Node[]{parts[0], node};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.weight > right.weight) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node delete(Node node, double score, long id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(score, id, node.score, node.id);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = delete(node.left, score, id);
+        } else {
+            node.right = delete(node.right, score, id);
+        }
+        node.update();
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node {
+        private final long id;
+        private final double score;
+        private final int weight = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        private void update() {
+            size = 1 + PriorityIndex.size(left) + PriorityIndex.size(right);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.frostyfox.ethosbackend.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// ddl-auto=update never changes a column's type, so tables created while python_response
+// was TEXT are converted to jsonb here. JSON objects are kept as they are. Older rows hold
+// Map.toString() output, which is not JSON, so those are kept as JSON strings. Empty values
+// become NULL. The conversion rewrites the table under an exclusive lock, so it runs while
+// the bean is created, and SchemaMigrationConfig makes JPA wait for it: nothing reads or
+// writes the table until it is done.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PythonResponseColumnMigration {
+
+    private static final String COLUMN_TYPE_SQL = "SELECT data_type FROM information_schema.columns " +
+        "WHERE table_schema = current_schema() AND table_name = 'package_priorities' AND column_name = 'python_response'";
+    private static final String TO_JSONB_SQL = "ALTER TABLE package_priorities ALTER COLUMN python_response TYPE jsonb USING " +
+        "CASE WHEN python_response IS NULL OR btrim(python_response) = '' THEN NULL " +
+        "WHEN python_response ~ '^\\s*\\{\\s*(\"|\\})' THEN python_response::jsonb " +
+        "ELSE to_jsonb(python_response) END";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void convertToJsonb() {
+        try {
+            String type = jdbcTemplate.query(COLUMN_TYPE_SQL, rs -> rs.next() ? rs.getString(1) : null);
+            if (type == null || "jsonb".equals(type)) {
+                return;
+            }
+            long start = System.nanoTime();
+            jdbcTemplate.execute(TO_JSONB_SQL);
+            log.info("Converted package_priorities.python_response from {} to jsonb in {} ms",
+                type, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.error("Error converting python_response to jsonb", e);
+        }
+    }
+}
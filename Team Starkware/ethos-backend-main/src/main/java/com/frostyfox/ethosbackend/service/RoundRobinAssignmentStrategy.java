@@ -0,0 +1,38 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.PackagePriority;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// The original rule: bulk assignment rotates through the drivers in priority order and
+// new packages go to the driver holding the fewest, ignoring capacity and route
+@Component
+public class RoundRobinAssignmentStrategy implements AssignmentStrategy {
+
+    @Override
+    public String getName() {
+        return "round-robin";
+    }
+
+    @Override
+    public int[] assignAll(DriverLoadView drivers, List<PackagePriority> packages) {
+        int[] choices = new int[packages.size()];
+        for (int i = 0; i < choices.length; i++) {
+            choices[i] = i % drivers.size();
+        }
+        return choices;
+    }
+
+    @Override
+    public int assignOne(DriverLoadView drivers, PackagePriority pkg) {
+        int least = 0;
+        for (int i = 1; i < drivers.size(); i++) {
+            if (drivers.held(i) < drivers.held(least) ||
+                (drivers.held(i) == drivers.held(least) && drivers.driverId(i) < drivers.driverId(least))) {
+                least = i;
+            }
+        }
+        return least;
+    }
+}
@@ -0,0 +1,38 @@
+package com.frostyfox.ethosbackend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Listings, keyset pages and the reassignment job order packages by (ethical_score DESC,
+// id ASC) with a missing score ranked as 0, so rows without a score are neither skipped
+// by the cursor nor sorted ahead of every scored row. Plain column indexes cannot serve
+// that order, so they are replaced here by indexes on the same COALESCE expression.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ScoreOrderIndexMigration {
+
+    private static final String SCORE_INDEX_SQL = "CREATE INDEX IF NOT EXISTS idx_package_priorities_score_key_id " +
+        "ON package_priorities ((COALESCE(ethical_score, 0.0)) DESC, id)";
+    private static final String TYPE_SCORE_INDEX_SQL = "CREATE INDEX IF NOT EXISTS idx_package_priorities_type_score_key_id " +
+        "ON package_priorities (delivery_type, (COALESCE(ethical_score, 0.0)) DESC, id)";
+    private static final String DROP_COLUMN_INDEXES_SQL =
+        "DROP INDEX IF EXISTS idx_package_priorities_score_id, idx_package_priorities_type_score_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createScoreOrderIndexes() {
+        try {
+            jdbcTemplate.execute(SCORE_INDEX_SQL);
+            jdbcTemplate.execute(TYPE_SCORE_INDEX_SQL);
+            jdbcTemplate.execute(DROP_COLUMN_INDEXES_SQL);
+        } catch (Exception e) {
+            log.error("Error creating score order indexes", e);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.AnalysisResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// MinHash/LSH index over package descriptions. Shingles are the distinct words of the
+// normalized description with quantity tokens dropped, so descriptions that differ only
+// in amounts or word order land on the same signature.
+@Component
+public class SimilarityIndex {
+
+    private static final int BANDS = 16;
+    private static final int ROWS = 4;
+    private static final int NUM_HASHES = BANDS * ROWS;
+    private static final int MIN_SHINGLES = 3;
+
+    private static final long[] SEEDS_A = new long[NUM_HASHES];
+    private static final long[] SEEDS_B = new long[NUM_HASHES];
+
+    static {
+        Random random = new Random(0x5eed);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            SEEDS_A[i] = random.nextLong() | 1L;
+            SEEDS_B[i] = random.nextLong();
+        }
+    }
+
+    private final boolean enabled;
+    private final double threshold;
+    private final int maxEntries;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<Long, List<String>> buckets = new HashMap<>();
+    private final Deque<String> insertionOrder = new ArrayDeque<>();
+
+    public SimilarityIndex(@Value("${ethos.similarity.enabled:true}") boolean enabled,
+                           @Value("${ethos.similarity.threshold:0.8}") double threshold,
+                           @Value("${ethos.similarity.max-entries:50000}") int maxEntries) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.maxEntries = maxEntries;
+    }
+
+    // Nearest previously analyzed package at or above the threshold, or null
+    public Match findNearest(String description) {
+        if (!enabled) {
+            return null;
+        }
+        long[] signature = signature(description);
+        if (signature == null) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<String> candidates = new HashSet<>();
+            for (int band = 0; band < BANDS; band++) {
+                List<String> bucket = buckets.get(bandKey(signature, band));
+                if (bucket != null) {
+                    candidates.addAll(bucket);
+                }
+            }
+
+            Match best = null;
+            for (String packageId : candidates) {
+                Entry entry = entries.get(packageId);
+                double similarity = estimateSimilarity(signature, entry.signature);
+                if (similarity >= threshold && (best == null || similarity > best.similarity())) {
+                    best = new Match(packageId, similarity, entry.analysis);
+                }
+            }
+            return best;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void record(String description, String packageId, AnalysisResult analysis) {
+        if (!enabled) {
+            return;
+        }
+        long[] signature = signature(description);
+        if (signature == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (entries.containsKey(packageId) || containsSignature(signature)) {
+                return;
+            }
+            entries.put(packageId, new Entry(signature, analysis));
+            insertionOrder.addLast(packageId);
+            for (int band = 0; band < BANDS; band++) {
+                buckets.computeIfAbsent(bandKey(signature, band), key -> new ArrayList<>(2)).add(packageId);
+            }
+            while (entries.size() > maxEntries) {
+                evict(insertionOrder.pollFirst());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Identical signatures always share the first band's bucket
+    private boolean containsSignature(long[] signature) {
+        List<String> bucket = buckets.get(bandKey(signature, 0));
+        if (bucket == null) {
+            return false;
+        }
+        for (String packageId : bucket) {
+            if (Arrays.equals(entries.get(packageId).signature, signature)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void evict(String packageId) {
+        Entry entry = entries.remove(packageId);
+        if (entry == null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(entry.signature, band);
+            List<String> bucket = buckets.get(key);
+            if (bucket != null) {
+                bucket.remove(packageId);
+                if (bucket.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+    }
+
+    static Set<String> shingles(String description) {
+        Set<String> shingles = new HashSet<>();
+        for (String token : AnalysisCache.normalize(description).split(" ")) {
+            if (!token.isEmpty() && token.chars().noneMatch(Character::isDigit)) {
+                shingles.add(token);
+            }
+        }
+        return shingles;
+    }
+
+    private static long[] signature(String description) {
+        Set<String> shingles = shingles(description);
+        if (shingles.size() < MIN_SHINGLES) {
+            return null;
+        }
+
+        long[] signature = new long[NUM_HASHES];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (String shingle : shingles) {
+            long base = mix(shingle.hashCode());
+            for (int i = 0; i < NUM_HASHES; i++) {
+                long hash = mix(SEEDS_A[i] * base + SEEDS_B[i]);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static double estimateSimilarity(long[] a, long[] b) {
+        int equal = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / NUM_HASHES;
+    }
+
+    private static long bandKey(long[] signature, int band) {
+        long key = band;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            key = key * 0x9E3779B97F4A7C15L + signature[row];
+        }
+        return mix(key);
+    }
+
+    // 64-bit finalizer from MurmurHash3
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    public record Match(String packageId, double similarity, AnalysisResult analysis) {
+    }
+
+    private record Entry(long[] signature, AnalysisResult analysis) {
+    }
+}
@@ -0,0 +1,142 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.AnalyzerResponse;
+import com.frostyfox.ethosbackend.support.StubAnalyzerServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnalyzerClientTests {
+
+    private static final int CALLERS = 256;
+
+    @Test
+    void coalescesConcurrentCallsIntoBatches() throws Exception {
+        try (StubAnalyzerServer stub = new StubAnalyzerServer(20, 4, true)) {
+            AnalyzerClient client = new AnalyzerClient(WebClient.create(stub.baseUrl()), true, 32, 10, 30_000);
+            try {
+                runConcurrently(client);
+
+                assertTrue(stub.batchRequests() >= CALLERS / 32);
+                assertTrue(stub.batchRequests() + stub.singleRequests() < CALLERS / 4,
+                    "expected coalescing, got " + stub.batchRequests() + " batch and "
+                        + stub.singleRequests() + " single requests");
+            } finally {
+                client.close();
+            }
+        }
+
+        try (StubAnalyzerServer stub = new StubAnalyzerServer(20, 4, true)) {
+            AnalyzerClient client = new AnalyzerClient(WebClient.create(stub.baseUrl()), false, 32, 10, 30_000);
+            try {
+                runConcurrently(client);
+
+                assertEquals(0, stub.batchRequests());
+                assertEquals(CALLERS, stub.singleRequests());
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    @Test
+    void fallsBackToPerItemCallsWhenBatchingUnsupported() throws Exception {
+        try (StubAnalyzerServer stub = new StubAnalyzerServer(5, 8, false)) {
+            AnalyzerClient client = new AnalyzerClient(WebClient.create(stub.baseUrl()), true, 32, 10, 30_000);
+            try {
+                runConcurrently(client);
+
+                assertFalse(client.isBatchSupported());
+                assertEquals(0, stub.batchRequests());
+                assertEquals(CALLERS, stub.singleRequests());
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    @Test
+    void failedBatchFailsItsCallersWithoutPerItemRetries() throws Exception {
+        try (StubAnalyzerServer stub = new StubAnalyzerServer(20, 0, 4, true, 1.0,
+                StubAnalyzerServer.ScoreDistribution.DESCRIPTION_HASH)) {
+            AnalyzerClient client = new AnalyzerClient(WebClient.create(stub.baseUrl()), true, 32, 10, 30_000);
+            try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<AnalyzerResponse>> results = new ArrayList<>();
+                for (int i = 0; i < CALLERS; i++) {
+                    String description = "Medical kit #" + i;
+                    results.add(callers.submit(() -> client.analyze(description)));
+                }
+                for (Future<AnalyzerResponse> result : results) {
+                    ExecutionException e = assertThrows(ExecutionException.class, result::get);
+                    assertInstanceOf(WebClientResponseException.class, e.getCause());
+                }
+
+                assertEquals(stub.failedRequests(), stub.batchRequests() + stub.singleRequests());
+                assertTrue(stub.failedRequests() < CALLERS / 4,
+                    "expected no per-item retries, got " + stub.failedRequests() + " requests");
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    @Test
+    void callersStopWaitingAfterTheTimeout() throws Exception {
+        try (StubAnalyzerServer stub = new StubAnalyzerServer(2_000, 4, true)) {
+            AnalyzerClient client = new AnalyzerClient(WebClient.create(stub.baseUrl()), true, 32, 10, 200);
+            try {
+                long start = System.nanoTime();
+                assertThrows(IllegalStateException.class, () -> client.analyze("Medical kit"));
+                assertTrue((System.nanoTime() - start) / 1_000_000 < 1_500);
+            } finally {
+                client.close();
+            }
+        }
+    }
+
+    @Test
+    void storedJsonKeepsFieldsTheRecordDoesNotModel() {
+        String reply = "{\"priority_level\":1,\"requires_approval\":true,\"explanation\":\"x\"," +
+            "\"score\":{\"harm_score\":3.5,\"total_score\":8.7,\"confidence\":0.9},\"model\":\"v2\"}";
+        JsonMapper json = JsonMapper.shared();
+
+        AnalyzerResponse response = json.readValue(reply, AnalyzerResponse.class);
+
+        assertEquals(8.7, response.score().totalScore());
+        assertNull(response.domain());
+        assertEquals(json.readTree(reply), json.readTree(response.toJson()));
+    }
+
+    // Fires CALLERS concurrent analyze calls, checks every caller got its own result back
+    private void runConcurrently(AnalyzerClient client) throws Exception {
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<String> descriptions = new ArrayList<>();
+            List<Future<AnalyzerResponse>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                String description = "Medical kit #" + i + " with insulin and bandages";
+                descriptions.add(description);
+                results.add(callers.submit(() -> client.analyze(description)));
+            }
+
+            for (int i = 0; i < CALLERS; i++) {
+                assertEquals(StubAnalyzerServer.expectedScore(descriptions.get(i)),
+                    results.get(i).get().score().totalScore());
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.Driver;
+import com.frostyfox.ethosbackend.repository.DriverRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class DriverLoadRegistryTests {
+
+    private static final int SUBMISSIONS = 600;
+    private static final int THREADS = 64;
+
+    @Test
+    void countersStayExactUnderConcurrentReservations() throws Exception {
+        DriverRepository driverRepository = mock(DriverRepository.class);
+        DriverLoadRegistry registry = new DriverLoadRegistry(driverRepository, mock(DriverSpatialIndex.class));
+        registry.reload(List.of(driver(1L, 0), driver(2L, 0), driver(3L, 0)));
+
+        Map<Long, AtomicInteger> reservedPerDriver = new ConcurrentHashMap<>();
+        runConcurrently(SUBMISSIONS, () -> {
+            DriverLoadRegistry.Reservation reservation = registry.reserve();
+            assertNotNull(reservation);
+            reservedPerDriver.computeIfAbsent(reservation.driverId(), id -> new AtomicInteger()).incrementAndGet();
+        });
+
+        int total = 0;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (long id = 1; id <= 3; id++) {
+            int assigned = registry.getAssigned(id);
+            assertEquals(reservedPerDriver.get(id).get(), assigned);
+            assertEquals(assigned, registry.getHeld(id));
+            total += assigned;
+            min = Math.min(min, assigned);
+            max = Math.max(max, assigned);
+        }
+        assertEquals(SUBMISSIONS, total);
+        // Only the least-loaded driver is ever incremented, so loads never drift apart
+        assertTrue(max - min <= 1, "loads drifted: min " + min + ", max " + max);
+
+        registry.reconcile();
+        for (long id = 1; id <= 3; id++) {
+            verify(driverRepository).updateLoad(id, registry.getAssigned(id), registry.getHeld(id));
+        }
+    }
+
+    @Test
+    void releasesInterleavedWithReservationsKeepCountersExact() throws Exception {
+        DriverLoadRegistry registry = new DriverLoadRegistry(mock(DriverRepository.class), mock(DriverSpatialIndex.class));
+        registry.reload(List.of(driver(1L, 10), driver(2L, 0)));
+
+        // Every submission reserves twice and gives one back, netting one slot each
+        runConcurrently(SUBMISSIONS, () -> {
+            DriverLoadRegistry.Reservation kept = registry.reserve();
+            DriverLoadRegistry.Reservation returned = registry.reserve();
+            assertNotNull(kept);
+            registry.release(returned.driverId());
+        });
+
+        assertEquals(10 + SUBMISSIONS, registry.getAssigned(1L) + registry.getAssigned(2L));
+
+        // Once quiescent, reservations go strictly to the least-loaded driver
+        Long least = registry.getAssigned(1L) <= registry.getAssigned(2L) ? 1L : 2L;
+        assertEquals(least, registry.reserve().driverId());
+    }
+
+    private static void runConcurrently(int submissions, Runnable submission) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < submissions; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    submission.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Driver driver(Long id, int assigned) {
+        Driver driver = new Driver();
+        driver.setId(id);
+        driver.setDriverName("Driver " + id);
+        driver.setAssignedPackages(assigned);
+        driver.setCurrentlyHeld(assigned);
+        driver.setTotalCapacity(5);
+        driver.setStatus("ACTIVE");
+        return driver;
+    }
+}
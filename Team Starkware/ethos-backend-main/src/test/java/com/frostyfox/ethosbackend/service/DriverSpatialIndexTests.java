@@ -0,0 +1,126 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.model.Driver;
+import com.frostyfox.ethosbackend.repository.DriverRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+class DriverSpatialIndexTests {
+
+    private static final int DRIVERS = 800;
+    private static final int QUERIES = 2000;
+
+    @Test
+    void nearestMatchesBruteForceAcrossTheFleet() {
+        DriverSpatialIndex index = new DriverSpatialIndex(mock(DriverRepository.class), 0.05, 64);
+        Random random = new Random(42);
+        List<Driver> fleet = new ArrayList<>();
+        for (long id = 1; id <= DRIVERS; id++) {
+            // Spread over roughly 100 x 100 km
+            Driver driver = driver(id, 6.9 + random.nextDouble(), 79.8 + random.nextDouble());
+            fleet.add(driver);
+            index.update(driver);
+            // Every third driver is at capacity
+            long driverId = id;
+            index.refreshCapacity(driverId, () -> driverId % 3 == 0);
+        }
+
+        for (int q = 0; q < QUERIES; q++) {
+            double latitude = 6.9 + random.nextDouble();
+            double longitude = 79.8 + random.nextDouble();
+            // Every fifth driver is rejected by the caller
+            Long nearest = index.nearest(latitude, longitude, id -> id % 5 != 0);
+
+            assertEquals(bruteForce(fleet, latitude, longitude), nearest);
+        }
+    }
+
+    @Test
+    void sparseAreaMatchesBruteForceThroughTheOpenCells() {
+        DriverSpatialIndex index = new DriverSpatialIndex(mock(DriverRepository.class), 0.05, 64);
+        Random random = new Random(7);
+        List<Driver> fleet = new ArrayList<>();
+        for (long id = 1; id <= 40; id++) {
+            // Parked about 50 cells away from the pickups
+            Driver driver = driver(id, 9.4 + random.nextDouble(), 82.3 + random.nextDouble());
+            fleet.add(driver);
+            index.update(driver);
+            long driverId = id;
+            index.refreshCapacity(driverId, () -> driverId % 3 == 0);
+        }
+
+        for (int q = 0; q < 200; q++) {
+            double latitude = 6.9 + random.nextDouble();
+            double longitude = 79.8 + random.nextDouble();
+            assertEquals(bruteForce(fleet, latitude, longitude),
+                index.nearest(latitude, longitude, id -> id % 5 != 0));
+        }
+    }
+
+    @Test
+    void fullDriversAreSkippedUntilTheyHaveRoomAgain() {
+        DriverSpatialIndex index = new DriverSpatialIndex(mock(DriverRepository.class), 0.05, 64);
+        index.update(driver(1L, 6.90, 79.85));
+        index.update(driver(2L, 7.30, 80.60));
+
+        index.refreshCapacity(1L, () -> true);
+        assertEquals(2L, index.nearest(6.91, 79.86, id -> true));
+        index.refreshCapacity(2L, () -> true);
+        assertNull(index.nearest(6.91, 79.86, id -> true));
+
+        // A driver that moves while full stays skipped, and is found once it has room
+        index.update(driver(1L, 6.95, 79.90));
+        assertNull(index.nearest(6.91, 79.86, id -> true));
+        index.refreshCapacity(1L, () -> false);
+        assertEquals(1L, index.nearest(6.91, 79.86, id -> true));
+    }
+
+    @Test
+    void movedDriversAreFoundAtTheirNewPosition() {
+        DriverSpatialIndex index = new DriverSpatialIndex(mock(DriverRepository.class), 0.05, 4);
+        index.update(driver(1L, 6.90, 79.85));
+        index.update(driver(2L, 7.30, 80.60));
+
+        assertEquals(1L, index.nearest(6.91, 79.86, id -> true));
+        index.update(driver(2L, 6.91, 79.86));
+        assertEquals(2L, index.nearest(6.91, 79.86, id -> true));
+
+        // Beyond max-rings nothing is returned
+        index.remove(1L);
+        index.remove(2L);
+        assertNull(index.nearest(6.91, 79.86, id -> true));
+    }
+
+    private static Long bruteForce(List<Driver> fleet, double latitude, double longitude) {
+        Long best = null;
+        double bestKm = Double.MAX_VALUE;
+        for (Driver driver : fleet) {
+            if (driver.getId() % 3 == 0 || driver.getId() % 5 == 0) {
+                continue;
+            }
+            double km = DriverSpatialIndex.distanceKm(latitude, longitude, driver.getLatitude(), driver.getLongitude());
+            if (km < bestKm) {
+                best = driver.getId();
+                bestKm = km;
+            }
+        }
+        return best;
+    }
+
+    private static Driver driver(Long id, double latitude, double longitude) {
+        Driver driver = new Driver();
+        driver.setId(id);
+        driver.setDriverName("Driver " + id);
+        driver.setTotalCapacity(5);
+        driver.setLatitude(latitude);
+        driver.setLongitude(longitude);
+        return driver;
+    }
+}
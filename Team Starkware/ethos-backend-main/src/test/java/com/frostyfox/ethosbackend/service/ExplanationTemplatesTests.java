@@ -0,0 +1,35 @@
+package com.frostyfox.ethosbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExplanationTemplatesTests {
+
+    @Test
+    void picksTheWordingForTheDeliveryTypeAndScoreBand() {
+        assertEquals("This medical package from City Medical Center to General Hospital contains critical medical " +
+                "supplies with an ethical score of 9.0, requiring immediate delivery as delays could cause serious " +
+                "harm to patients. It is assigned Priority 1 based on its relative importance compared to other packages.",
+            ExplanationTemplates.render("MEDICAL_EXPRESS", "City Medical Center", "General Hospital",
+                "2026-02-05T08:00:00", 9.0, 1));
+        assertEquals("This food package traveling from Farm to Shelter has an ethical score of 6.0 and contains " +
+                "perishable items that will spoil if not delivered quickly by 2026-02-05T08:00:00. It is assigned " +
+                "Priority 12 based on its relative importance compared to other packages.",
+            ExplanationTemplates.render("FOOD_EXPRESS", "Farm", "Shelter", "2026-02-05T08:00:00", 6.0, 12));
+        assertEquals("This essential package from Depot to Home has an ethical score of 6.9 and contains important " +
+                "items needed by the recipient, warranting priority handling. It is assigned Priority 40 based on " +
+                "its relative importance compared to other packages.",
+            ExplanationTemplates.render("ESSENTIAL", "Depot", "Home", "2026-02-05T08:00:00", 6.9, 40));
+    }
+
+    @Test
+    void unknownDeliveryTypesUseTheStandardWording() {
+        assertEquals("This package from A to B has an ethical score of 3.0 and should be delivered by noon to meet " +
+                "the recipient's needs. It is assigned Priority 7 based on its relative importance compared to other packages.",
+            ExplanationTemplates.render("GADGETS", "A", "B", "noon", 3.0, 7));
+        assertEquals("This package from A to B has an ethical score of 2.9 and can be delivered with standard " +
+                "priority handling. It is assigned Priority null based on its relative importance compared to other packages.",
+            ExplanationTemplates.render(null, "A", "B", "noon", 2.9, null));
+    }
+}
@@ -0,0 +1,107 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.repository.DriverAssignmentRepository;
+import com.frostyfox.ethosbackend.repository.PackagePriorityRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class PackageIdGeneratorTests {
+
+    private static final int THREADS = 8;
+    // Enough to run out of the 4096 sequence numbers of a millisecond and run ahead of the clock
+    private static final int IDS_PER_THREAD = 20_000;
+
+    @Test
+    void concurrentIdsAreUniqueAndIncreasingPerThread() throws Exception {
+        PackageIdGenerator generator = generator(7);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<long[]>> batches = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            batches.add(pool.submit(() -> {
+                start.await();
+                long[] ids = new long[IDS_PER_THREAD];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = generator.nextId();
+                }
+                return ids;
+            }));
+        }
+
+        start.countDown();
+        long[] all = new long[THREADS * IDS_PER_THREAD];
+        int offset = 0;
+        for (Future<long[]> batch : batches) {
+            long[] ids = batch.get();
+            for (int i = 1; i < ids.length; i++) {
+                assertTrue(ids[i] > ids[i - 1], "IDs must increase within a thread");
+            }
+            System.arraycopy(ids, 0, all, offset, ids.length);
+            offset += ids.length;
+        }
+        pool.shutdown();
+
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertTrue(all[i] != all[i - 1], "Duplicate ID " + all[i]);
+        }
+        for (long id : all) {
+            assertEquals(7, PackageIdGenerator.nodeOf(id));
+        }
+    }
+
+    @Test
+    void idsCarryTheirCreationTimeAndNode() {
+        long before = System.currentTimeMillis();
+        long id = generator(1023).nextId();
+        long after = System.currentTimeMillis();
+
+        assertTrue(PackageIdGenerator.timestampOf(id) >= before && PackageIdGenerator.timestampOf(id) <= after);
+        assertEquals(1023, PackageIdGenerator.nodeOf(id));
+        assertTrue(generator(0).nextPackageId().startsWith("PKG-"));
+    }
+
+    @Test
+    void seededGeneratorContinuesAfterTheStoredIds() {
+        PackageIdGenerator previous = generator(3);
+        long issued = 0;
+        // Run well ahead of the clock, as a burst just before a restart would
+        for (int i = 0; i < 100_000; i++) {
+            issued = previous.nextId();
+        }
+
+        PackageIdGenerator restarted = generator(3);
+        restarted.seed(issued);
+        assertTrue(restarted.nextId() > issued);
+
+        // A seed behind the clock leaves the clock in charge
+        PackageIdGenerator clocked = generator(3);
+        clocked.seed(1);
+        assertTrue(PackageIdGenerator.timestampOf(clocked.nextId()) >= System.currentTimeMillis() - 1000);
+    }
+
+    @Test
+    void nodeIdMustFitItsBits() {
+        assertThrows(IllegalArgumentException.class, () -> generator(1024));
+        assertThrows(IllegalArgumentException.class, () -> generator(-1));
+    }
+
+    private static PackageIdGenerator generator(long nodeId) {
+        return new PackageIdGenerator(mock(PackagePriorityRepository.class), mock(DriverAssignmentRepository.class),
+            mock(JdbcTemplate.class), mock(TransactionTemplate.class), nodeId);
+    }
+}
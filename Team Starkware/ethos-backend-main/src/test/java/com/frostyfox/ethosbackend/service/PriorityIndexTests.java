@@ -0,0 +1,106 @@
+package com.frostyfox.ethosbackend.service;
+
+import com.frostyfox.ethosbackend.repository.PackagePriorityRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+class PriorityIndexTests {
+
+    private static final int OPERATIONS = 5_000;
+    private static final long MAX_ID = 400;
+
+    @Test
+    void ranksMatchASortedListAcrossAddsRescoresAndRemoves() {
+        PriorityIndex index = new PriorityIndex(mock(PackagePriorityRepository.class));
+        Map<Long, Double> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int op = 0; op < OPERATIONS; op++) {
+            long id = 1 + random.nextInt((int) MAX_ID);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                expected.remove(id);
+            } else {
+                // Few distinct scores so ties (broken by id) are common; null ranks as 0.0
+                Double score = random.nextInt(10) == 0 ? null : random.nextInt(21) / 2.0;
+                int priority = index.add(id, score);
+                expected.put(id, score != null ? score : 0.0);
+                assertEquals(sorted(expected).indexOf(id) + 1, priority);
+            }
+            if (op % 100 == 0) {
+                assertMatches(index, expected);
+            }
+        }
+        assertMatches(index, expected);
+    }
+
+    @Test
+    void rebuildAndAddAllMatchIndividualAdds() {
+        PriorityIndex index = new PriorityIndex(mock(PackagePriorityRepository.class));
+        Map<Long, Double> expected = new HashMap<>();
+        Random random = new Random(11);
+        List<PackagePriorityRepository.ScoreView> rows = new ArrayList<>();
+        for (long id = 1; id <= MAX_ID; id++) {
+            double score = random.nextInt(21) / 2.0;
+            rows.add(view(id, score));
+            expected.put(id, score);
+        }
+        index.rebuild(rows);
+        assertMatches(index, expected);
+
+        Map<Long, Double> batch = new HashMap<>();
+        for (long id = MAX_ID / 2; id <= MAX_ID + 100; id++) {
+            batch.put(id, random.nextInt(21) / 2.0);
+        }
+        index.addAll(batch);
+        expected.putAll(batch);
+        assertMatches(index, expected);
+    }
+
+    private static void assertMatches(PriorityIndex index, Map<Long, Double> expected) {
+        List<Long> order = sorted(expected);
+        assertEquals(order.size(), index.size());
+        for (int i = 0; i < order.size(); i++) {
+            assertEquals(order.get(i), index.idAtPriority(i + 1));
+            assertEquals(i + 1, index.priorityOf(order.get(i)));
+        }
+        assertNull(index.idAtPriority(0));
+        assertNull(index.idAtPriority(order.size() + 1));
+        for (long id = 1; id <= MAX_ID; id++) {
+            if (!expected.containsKey(id)) {
+                assertNull(index.priorityOf(id));
+            }
+        }
+    }
+
+    // Ids in priority order: score descending, then id ascending
+    private static List<Long> sorted(Map<Long, Double> scores) {
+        List<Long> ids = new ArrayList<>(scores.keySet());
+        ids.sort(Comparator.comparing((Long id) -> scores.get(id)).reversed().thenComparing(id -> id));
+        return ids;
+    }
+
+    private static PackagePriorityRepository.ScoreView view(Long id, Double score) {
+        return new PackagePriorityRepository.ScoreView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Double getEthicalScore() {
+                return score;
+            }
+        };
+    }
+}
@@ -0,0 +1,176 @@
+package com.frostyfox.ethosbackend.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// In-process stand-in for the Python analyzer: serves /ai/analyze and, optionally,
+// /ai/analyze/batch with a per-request latency (plus uniform jitter) and a small worker
+// pool, so analyzer throughput can be measured offline. A share of requests can be
+// failed with a 500, and scores either derive from the description or are drawn from
+// a distribution.
+public class StubAnalyzerServer implements AutoCloseable {
+
+    public enum ScoreDistribution {
+        // Fixed per description, see expectedScore
+        DESCRIPTION_HASH,
+        UNIFORM,
+        // Most packages score high, as in an emergency
+        CRITICAL_HEAVY,
+        // Most packages score low, as in routine operation
+        ROUTINE_HEAVY
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final long latencyMs;
+    private final long jitterMs;
+    private final boolean batchSupported;
+    private final double errorRate;
+    private final ScoreDistribution scores;
+
+    private final AtomicInteger singleRequests = new AtomicInteger();
+    private final AtomicInteger batchRequests = new AtomicInteger();
+    private final AtomicInteger failedRequests = new AtomicInteger();
+
+    public StubAnalyzerServer(long latencyMs, int workerThreads, boolean batchSupported) throws IOException {
+        this(latencyMs, 0, workerThreads, batchSupported, 0.0, ScoreDistribution.DESCRIPTION_HASH);
+    }
+
+    public StubAnalyzerServer(long latencyMs, long jitterMs, int workerThreads, boolean batchSupported,
+                              double errorRate, ScoreDistribution scores) throws IOException {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.batchSupported = batchSupported;
+        this.errorRate = errorRate;
+        this.scores = scores;
+        this.workers = Executors.newFixedThreadPool(workerThreads);
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(workers);
+        server.createContext("/ai/analyze", this::handle);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int singleRequests() {
+        return singleRequests.get();
+    }
+
+    public int batchRequests() {
+        return batchRequests.get();
+    }
+
+    public int failedRequests() {
+        return failedRequests.get();
+    }
+
+    public static double expectedScore(String description) {
+        return Math.floorMod(description.hashCode(), 101) / 10.0;
+    }
+
+    public static String expectedDomain(String description) {
+        String text = description.toLowerCase();
+        if (text.contains("insulin") || text.contains("medic")) {
+            return "MEDICAL_EXPRESS";
+        }
+        if (text.contains("food") || text.contains("rice")) {
+            return "FOOD_EXPRESS";
+        }
+        return "STANDARD";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        workers.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            Map<?, ?> body = objectMapper.readValue(exchange.getRequestBody(), Map.class);
+            Object response;
+
+            if (path.equals("/ai/analyze/batch")) {
+                if (!batchSupported) {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+                batchRequests.incrementAndGet();
+                List<Map<String, Object>> results = new ArrayList<>();
+                for (Object item : (List<?>) body.get("items")) {
+                    Map<?, ?> entry = (Map<?, ?>) item;
+                    results.add(Map.of(
+                        "id", entry.get("id"),
+                        "result", analysis(entry.get("description").toString())
+                    ));
+                }
+                response = Map.of("results", results);
+            } else if (path.equals("/ai/analyze")) {
+                singleRequests.incrementAndGet();
+                response = analysis(body.get("description").toString());
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            Thread.sleep(latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0));
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                failedRequests.incrementAndGet();
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            byte[] bytes = objectMapper.writeValueAsBytes(response);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Map<String, Object> analysis(String description) {
+        double score = score(description);
+        Map<String, Object> scoreMap = new LinkedHashMap<>();
+        scoreMap.put("harm_score", score * 0.4);
+        scoreMap.put("vulnerability_score", score * 0.35);
+        scoreMap.put("time_score", score * 0.25);
+        scoreMap.put("total_score", score);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("priority_level", score >= 8.0 ? 1 : score >= 6.0 ? 2 : score >= 4.0 ? 3 : 4);
+        result.put("requires_approval", score >= 8.0);
+        result.put("explanation", "DECISION EXPLANATION:\nPackage contained keywords associated with the "
+            + expectedDomain(description) + " domain.\nTotal Ethical Score: " + score);
+        result.put("score", scoreMap);
+        return result;
+    }
+
+    private double score(String description) {
+        double draw = ThreadLocalRandom.current().nextDouble();
+        return switch (scores) {
+            case DESCRIPTION_HASH -> expectedScore(description);
+            case UNIFORM -> Math.round(draw * 100) / 10.0;
+            case CRITICAL_HEAVY -> Math.round(Math.sqrt(draw) * 100) / 10.0;
+            case ROUTINE_HEAVY -> Math.round(draw * draw * 100) / 10.0;
+        };
+    }
+}